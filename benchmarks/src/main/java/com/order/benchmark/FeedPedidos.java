@@ -0,0 +1,42 @@
+package com.order.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.order.model.PedidoExternoA;
+import com.order.model.Produto;
+
+/**
+ * Gera feeds sintéticos do Externo A com formato fixo. Os números dos pedidos
+ * levam um prefixo único por chamada, para que a deduplicação não descarte os
+ * pedidos entre as iterações.
+ */
+public final class FeedPedidos {
+
+    public static final int PRODUTOS_POR_PEDIDO = 3;
+
+    private static final int PRODUTOS_DISTINTOS = 1_000;
+
+    private FeedPedidos() {
+    }
+
+    public static List<PedidoExternoA> gerar(int quantidade) {
+        String prefixo = "bench-" + System.nanoTime() + "-";
+        List<PedidoExternoA> feed = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            List<Produto> produtos = new ArrayList<>(PRODUTOS_POR_PEDIDO);
+            for (int j = 0; j < PRODUTOS_POR_PEDIDO; j++) {
+                int codigo = (i * PRODUTOS_POR_PEDIDO + j) % PRODUTOS_DISTINTOS;
+                Produto produto = new Produto();
+                produto.setNome("Produto " + codigo);
+                produto.setValor(BigDecimal.valueOf(1000 + codigo, 2));
+                produtos.add(produto);
+            }
+            PedidoExternoA pedido = new PedidoExternoA(prefixo + i, produtos);
+            pedido.setDescontoPercentual(new BigDecimal("5.00"));
+            feed.add(pedido);
+        }
+        return feed;
+    }
+}
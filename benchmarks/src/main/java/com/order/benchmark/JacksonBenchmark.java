@@ -0,0 +1,83 @@
+package com.order.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.order.model.Pedido;
+import com.order.model.PedidoExternoA;
+import com.order.model.PedidoProduto;
+import com.order.model.mapper.PedidoMapper;
+
+/**
+ * Leitura do array de {@link PedidoExternoA} recebido do Externo A e escrita
+ * de {@link Pedido}, com leitores e escritores pré-construídos como na aplicação.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class JacksonBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int tamanhoFeed;
+
+    private ObjectReader leitorFeed;
+
+    private ObjectWriter escritorPedidos;
+
+    private byte[] feedJson;
+
+    private List<Pedido> pedidos;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        leitorFeed = objectMapper.readerFor(PedidoExternoA[].class);
+        escritorPedidos = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, Pedido.class));
+
+        List<PedidoExternoA> feed = FeedPedidos.gerar(tamanhoFeed);
+        feedJson = objectMapper.writeValueAsBytes(feed);
+        pedidos = feed.stream().map(JacksonBenchmark::criarPedido).toList();
+    }
+
+    @Benchmark
+    public PedidoExternoA[] lerFeed() throws IOException {
+        return leitorFeed.readValue(feedJson);
+    }
+
+    @Benchmark
+    public byte[] escreverPedidos() throws IOException {
+        return escritorPedidos.writeValueAsBytes(pedidos);
+    }
+
+    private static Pedido criarPedido(PedidoExternoA pedidoExternoA) {
+        Pedido pedido = PedidoMapper.fromPedidoExternoA(pedidoExternoA);
+        pedido.setPedidoProdutos(pedidoExternoA.getProdutos().stream().map(produto -> {
+            PedidoProduto pedidoProduto = new PedidoProduto();
+            pedidoProduto.setPedido(pedido);
+            pedidoProduto.setProduto(produto);
+            pedidoProduto.setQuantidade(1);
+            return pedidoProduto;
+        }).toList());
+        return pedido;
+    }
+}
@@ -0,0 +1,156 @@
+package com.order.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.order.OrderApplication;
+import com.order.model.Pedido;
+import com.order.model.PedidoExternoA;
+import com.order.model.PedidoProduto;
+import com.order.model.dto.PedidoDTO;
+import com.order.repository.PedidoRepository;
+import com.order.service.PedidoService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Leitura de páginas de pedidos com seus itens e produtos em um PostgreSQL em
+ * processo, com e sem o cache de segundo nível do Hibernate. Ao fim de cada
+ * iteração, imprime a média de comandos SQL por página lida, contados pelas
+ * estatísticas do Hibernate.
+ *
+ * entidades: carrega os pedidos como entidades e percorre os itens e os
+ * produtos (coleção e associações lazy), o caminho atendido pelo cache.
+ * projecao: a página da API Externo B (IDs e projeção em uma consulta), para
+ * referência; não passa pelo cache de segundo nível.
+ *
+ * java -jar benchmarks/target/benchmarks.jar LeituraPaginaBenchmark -prof gc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class LeituraPaginaBenchmark {
+
+    private static final int QUANTIDADE_PEDIDOS = 10_000;
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    @Param({ "true", "false" })
+    private boolean cacheSegundoNivel;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext contexto;
+
+    private PedidoService pedidoService;
+
+    private PedidoRepository pedidoRepository;
+
+    private TransactionTemplate transacaoLeitura;
+
+    private Statistics estatisticas;
+
+    private long primeiroId;
+
+    private long comandosInicio;
+
+    private long leituras;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        postgres = EmbeddedPostgres.start();
+
+        SpringApplication aplicacao = new SpringApplication(OrderApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        contexto = aplicacao.run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.cache.use_second_level_cache=" + cacheSegundoNivel,
+                "--order.kafka.consumidor.habilitado=false",
+                "--order.outbox.intervalo-ms=86400000");
+        pedidoService = contexto.getBean(PedidoService.class);
+        pedidoRepository = contexto.getBean(PedidoRepository.class);
+        transacaoLeitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        transacaoLeitura.setReadOnly(true);
+        estatisticas = contexto.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+
+        List<PedidoExternoA> feed = FeedPedidos.gerar(QUANTIDADE_PEDIDOS);
+        for (int inicio = 0; inicio < feed.size(); inicio += 1_000) {
+            pedidoService.processarPedidosExternos(feed.subList(inicio, Math.min(inicio + 1_000, feed.size())));
+        }
+        primeiroId = pedidoRepository.findPedidoIds(PageRequest.of(0, 1)).getContent().get(0);
+    }
+
+    @Setup(Level.Iteration)
+    public void iniciarContagem() {
+        comandosInicio = estatisticas.getPrepareStatementCount();
+        leituras = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void imprimirContagem() {
+        System.out.printf("%n[cacheSegundoNivel=%s] comandos SQL por página: %.2f%n", cacheSegundoNivel,
+                (estatisticas.getPrepareStatementCount() - comandosInicio) / (double) Math.max(leituras, 1));
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public List<String> entidades() {
+        long inicio = primeiroId + ThreadLocalRandom.current().nextInt(QUANTIDADE_PEDIDOS / TAMANHO_PAGINA)
+                * TAMANHO_PAGINA;
+        leituras++;
+        return transacaoLeitura.execute(status -> {
+            List<String> nomes = new ArrayList<>();
+            for (Pedido pedido : pedidoRepository.findPedidosByIdRange(inicio, inicio + TAMANHO_PAGINA - 1)) {
+                for (PedidoProduto pedidoProduto : pedido.getPedidoProdutos()) {
+                    nomes.add(pedidoProduto.getProduto().getNome());
+                }
+            }
+            return nomes;
+        });
+    }
+
+    @Benchmark
+    public Page<PedidoDTO> projecao() {
+        leituras++;
+        return pedidoService.findAll(PageRequest.of(
+                ThreadLocalRandom.current().nextInt(QUANTIDADE_PEDIDOS / TAMANHO_PAGINA), TAMANHO_PAGINA));
+    }
+}
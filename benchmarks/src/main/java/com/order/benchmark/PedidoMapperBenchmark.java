@@ -0,0 +1,49 @@
+package com.order.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.order.model.PedidoExternoA;
+import com.order.model.mapper.PedidoMapper;
+
+/**
+ * Conversão do feed do Externo A em entidades {@code Pedido}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class PedidoMapperBenchmark {
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int tamanhoFeed;
+
+    private List<PedidoExternoA> feed;
+
+    @Setup
+    public void setUp() {
+        feed = FeedPedidos.gerar(tamanhoFeed);
+    }
+
+    @Benchmark
+    public void fromPedidoExternoA(Blackhole blackhole) {
+        for (PedidoExternoA pedidoExternoA : feed) {
+            blackhole.consume(PedidoMapper.fromPedidoExternoA(pedidoExternoA));
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.order.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.order.OrderApplication;
+import com.order.model.ImportacaoJob;
+import com.order.model.PedidoExternoA;
+import com.order.model.dto.ResultadoImportacao;
+import com.order.service.ImportacaoParalelaService;
+import com.order.service.PedidoService;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+/**
+ * Importação ponta a ponta (deduplicação, resolução de produtos, gravação e
+ * outbox) em um PostgreSQL em processo, com o contexto completo da aplicação.
+ * Cada invocação importa um feed novo, por isso o modo é de execução única.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProcessarPedidosExternosBenchmark {
+
+    private static final int TAMANHO_LOTE = 1_000;
+
+    @Param({ "1000", "10000", "100000", "1000000" })
+    private int tamanhoFeed;
+
+    private EmbeddedPostgres postgres;
+
+    private ConfigurableApplicationContext contexto;
+
+    private PedidoService pedidoService;
+
+    private ImportacaoParalelaService importacaoParalelaService;
+
+    private List<PedidoExternoA> feed;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        postgres = EmbeddedPostgres.start();
+
+        SpringApplication aplicacao = new SpringApplication(OrderApplication.class);
+        aplicacao.setWebApplicationType(WebApplicationType.NONE);
+        contexto = aplicacao.run(
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--spring.jpa.show-sql=false",
+                "--order.kafka.consumidor.habilitado=false",
+                "--order.outbox.intervalo-ms=86400000");
+        pedidoService = contexto.getBean(PedidoService.class);
+        importacaoParalelaService = contexto.getBean(ImportacaoParalelaService.class);
+    }
+
+    @Setup(Level.Invocation)
+    public void gerarFeed() {
+        feed = FeedPedidos.gerar(tamanhoFeed);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws IOException {
+        contexto.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public ResultadoImportacao sequencial() {
+        ResultadoImportacao total = ResultadoImportacao.VAZIO;
+        for (int inicio = 0; inicio < feed.size(); inicio += TAMANHO_LOTE) {
+            total = total.somar(pedidoService.processarPedidosExternos(
+                    feed.subList(inicio, Math.min(inicio + TAMANHO_LOTE, feed.size()))));
+        }
+        return total;
+    }
+
+    @Benchmark
+    public ResultadoImportacao paralelo() {
+        return importacaoParalelaService.importar(feed, new ImportacaoJob(ImportacaoJob.Modo.PADRAO));
+    }
+}
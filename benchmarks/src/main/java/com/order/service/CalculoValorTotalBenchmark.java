@@ -0,0 +1,62 @@
+package com.order.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.order.model.PedidoProduto;
+import com.order.model.Produto;
+
+/**
+ * Cálculo do valor total de um pedido ({@code PedidoService.calcularValorTotal}),
+ * executado uma vez por pedido importado. Fica no pacote do serviço por ser um
+ * método interno.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculoValorTotalBenchmark {
+
+    private static final BigDecimal DESCONTO = new BigDecimal("5.25");
+
+    @Param({ "1", "3", "10", "100" })
+    private int itensPorPedido;
+
+    private List<PedidoProduto> pedidoProdutos;
+
+    @Setup
+    public void setUp() {
+        pedidoProdutos = new ArrayList<>(itensPorPedido);
+        for (int i = 0; i < itensPorPedido; i++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + i);
+            produto.setValor(BigDecimal.valueOf(1000 + i, 2));
+
+            PedidoProduto pedidoProduto = new PedidoProduto();
+            pedidoProduto.setProduto(produto);
+            pedidoProduto.setQuantidade(1 + i % 3);
+            pedidoProdutos.add(pedidoProduto);
+        }
+    }
+
+    @Benchmark
+    public Object calcularValorTotal() {
+        return PedidoService.calcularValorTotal(pedidoProdutos, DESCONTO);
+    }
+}
@@ -0,0 +1,76 @@
+package com.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.order.repository.RoteamentoDataSource;
+
+/**
+ * Executor das importações: no máximo {@code order.importacao.concorrencia}
+ * importações simultâneas e uma fila limitada de importações aguardando. Com a
+ * fila cheia, novas importações são rejeitadas em vez de acumular em memória.
+ * Com {@code spring.threads.virtual.enabled=true} em Java 21+, os workers são
+ * threads virtuais.
+ * As partições de uma importação rodam em um segundo executor, com
+ * {@code order.importacao.workers} threads, para que um job nunca espere por
+ * tarefas enfileiradas atrás dele no mesmo pool.
+ * Ao fim de cada tarefa, a última escrita da thread é esquecida no
+ * {@link RoteamentoDataSource}, para que não passe à próxima tarefa do pool.
+ */
+@Configuration
+public class AsyncConfig {
+
+    public static final String IMPORTACAO_EXECUTOR = "importacaoExecutor";
+
+    public static final String IMPORTACAO_WORKERS_EXECUTOR = "importacaoWorkersExecutor";
+
+    @Bean(name = IMPORTACAO_EXECUTOR)
+    public ThreadPoolTaskExecutor importacaoExecutor(Environment environment,
+            RoteamentoDataSource roteamentoDataSource,
+            @Value("${order.importacao.concorrencia:4}") int concorrencia,
+            @Value("${order.importacao.capacidade-fila:16}") int capacidadeFila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("importacao-");
+        executor.setCorePoolSize(concorrencia);
+        executor.setMaxPoolSize(concorrencia);
+        executor.setQueueCapacity(capacidadeFila);
+        executor.setTaskDecorator(limparEscritaAoFinal(roteamentoDataSource));
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("importacao-").getVirtualThreadFactory());
+        }
+        return executor;
+    }
+
+    @Bean(name = IMPORTACAO_WORKERS_EXECUTOR)
+    public ThreadPoolTaskExecutor importacaoWorkersExecutor(Environment environment,
+            RoteamentoDataSource roteamentoDataSource,
+            @Value("${order.importacao.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("importacao-worker-");
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setTaskDecorator(limparEscritaAoFinal(roteamentoDataSource));
+        if (Threading.VIRTUAL.isActive(environment)) {
+            executor.setThreadFactory(new VirtualThreadTaskExecutor("importacao-worker-").getVirtualThreadFactory());
+        }
+        return executor;
+    }
+
+    // Métodos Auxiliares
+
+    private TaskDecorator limparEscritaAoFinal(RoteamentoDataSource roteamentoDataSource) {
+        return tarefa -> () -> {
+            try {
+                tarefa.run();
+            } finally {
+                roteamentoDataSource.limparEscrita();
+            }
+        };
+    }
+}
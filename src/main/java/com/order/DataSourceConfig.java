@@ -0,0 +1,90 @@
+package com.order;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.order.repository.RoteamentoDataSource;
+import com.order.repository.RoteamentoDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pools de conexão da primária e das réplicas de leitura.
+ * A primária usa {@code spring.datasource.*}, com o pool em
+ * {@code spring.datasource.hikari.*}; as réplicas, listadas em
+ * {@code order.datasource.replicas.urls}, compartilham o dimensionamento em
+ * {@code order.datasource.replicas.hikari.*}, com um pool por réplica. Sem
+ * réplicas, todas as conexões vão para a primária.
+ * O DataSource da aplicação é o {@link RoteamentoDataSource} atrás de um
+ * {@link LazyConnectionDataSourceProxy}: a conexão física só é obtida no primeiro
+ * comando, quando a transação já está marcada como somente leitura ou não.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    // Uma réplica inacessível falha a conexão rápido em vez de esperar o padrão de 30s do Hikari
+    private static final long TIMEOUT_CONEXAO_REPLICA_MS = 2_000;
+
+    @Bean
+    public RoteamentoDataSource roteamentoDataSource(DataSourceProperties properties, Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${order.datasource.replicas.urls:}") List<String> urlsReplicas,
+            @Value("${order.datasource.replicas.username:${spring.datasource.username:}}") String usuarioReplicas,
+            @Value("${order.datasource.replicas.password:${spring.datasource.password:}}") String senhaReplicas,
+            @Value("${order.datasource.replicas.lag-maximo:5s}") Duration lagMaximo) {
+        HikariDataSource primaria = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurarPool(primaria, RoteamentoDataSource.PRIMARIA, "spring.datasource.hikari", environment, meterRegistry);
+
+        List<Replica> replicas = new ArrayList<>(urlsReplicas.size());
+        for (String url : urlsReplicas) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String nome = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(usuarioReplicas);
+            replica.setPassword(senhaReplicas);
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(TIMEOUT_CONEXAO_REPLICA_MS);
+            configurarPool(replica, nome, "order.datasource.replicas.hikari", environment, meterRegistry);
+            replicas.add(new Replica(nome, replica));
+        }
+        return new RoteamentoDataSource(primaria, replicas, lagMaximo);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(RoteamentoDataSource roteamentoDataSource) {
+        return new LazyConnectionDataSourceProxy(roteamentoDataSource);
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Aplica ao pool as propriedades do prefixo informado (tamanho, timeouts,
+     * propriedades do driver), o nome e as métricas do Micrometer, marcadas pelo nome do pool.
+     */
+    private void configurarPool(HikariDataSource pool, String nome, String prefixo, Environment environment,
+            MeterRegistry meterRegistry) {
+        Binder.get(environment).bind(prefixo, Bindable.ofInstance(pool));
+        pool.setPoolName(nome);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+    }
+}
@@ -0,0 +1,72 @@
+package com.order;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache, implementado pelo Caffeine) para
+ * os produtos, os itens dos pedidos e a coleção de itens de cada pedido.
+ * As regiões são criadas aqui com tamanho máximo e expiração explícitos; uma
+ * região não declarada faz a inicialização falhar
+ * ({@code hibernate.javax.cache.missing_cache_strategy=fail}).
+ * As estatísticas de cada região são publicadas no Micrometer, além das
+ * métricas de cache de segundo nível do próprio Hibernate.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    public static final String REGIAO_PRODUTOS = "produto";
+
+    public static final String REGIAO_PEDIDO_PRODUTOS = "pedido-produto";
+
+    public static final String REGIAO_ITENS_PEDIDO = "pedido-itens";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(MeterRegistry meterRegistry,
+            @Value("${order.cache.segundo-nivel.produtos.tamanho-maximo:100000}") long tamanhoProdutos,
+            @Value("${order.cache.segundo-nivel.itens.tamanho-maximo:200000}") long tamanhoItens,
+            @Value("${order.cache.segundo-nivel.ttl:1h}") Duration ttl) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager();
+        criarRegiao(cacheManager, meterRegistry, REGIAO_PRODUTOS, tamanhoProdutos, ttl);
+        criarRegiao(cacheManager, meterRegistry, REGIAO_PEDIDO_PRODUTOS, tamanhoItens, ttl);
+        criarRegiao(cacheManager, meterRegistry, REGIAO_ITENS_PEDIDO, tamanhoItens, ttl);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return propriedades -> propriedades.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    // Métodos Auxiliares
+
+    private void criarRegiao(CacheManager cacheManager, MeterRegistry meterRegistry, String nome, long tamanhoMaximo,
+            Duration ttl) {
+        Cache<Object, Object> regiao = cacheManager.getCache(nome);
+        if (regiao == null) {
+            CaffeineConfiguration<Object, Object> configuracao = new CaffeineConfiguration<>();
+            configuracao.setMaximumSize(OptionalLong.of(tamanhoMaximo));
+            configuracao.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            configuracao.setStatisticsEnabled(true);
+            regiao = cacheManager.createCache(nome, configuracao);
+        }
+        JCacheMetrics.monitor(meterRegistry, regiao);
+    }
+}
@@ -0,0 +1,51 @@
+package com.order;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Fontes da importação agendada do Externo A, em
+ * {@code order.importacao.agendada.fontes[n].*}. Sem fontes configuradas, nada
+ * é agendado.
+ *
+ * @param fontes As fontes importadas periodicamente
+ */
+@ConfigurationProperties("order.importacao.agendada")
+public record ImportacaoAgendadaProperties(@DefaultValue List<Fonte> fontes) {
+
+    /**
+     * Uma fonte de pedidos do Externo A.
+     *
+     * @param nome             O nome da fonte; identifica a posição salva, o bloqueio,
+     *                         o circuit breaker e as métricas
+     * @param url              A URL que retorna um array JSON de pedidos
+     * @param intervalo        O intervalo entre o fim de uma importação e o início da próxima
+     * @param concorrencia     A quantidade máxima de páginas buscadas em paralelo
+     * @param paginas          A quantidade de páginas por importação; com 1, a URL é
+     *                         chamada sem o parâmetro de página
+     * @param parametroPosicao O parâmetro de consulta que recebe a posição da última importação
+     * @param sobreposicao     Quanto a posição recua em relação ao início da última
+     *                         importação, para tolerar diferenças de relógio com a fonte
+     */
+    public record Fonte(
+            String nome,
+            String url,
+            @DefaultValue("5m") Duration intervalo,
+            @DefaultValue("4") int concorrencia,
+            @DefaultValue("1") int paginas,
+            @DefaultValue("desde") String parametroPosicao,
+            @DefaultValue("1m") Duration sobreposicao) {
+
+        public Fonte {
+            if (nome == null || nome.isBlank() || url == null || url.isBlank()) {
+                throw new IllegalArgumentException("Toda fonte da importação agendada precisa de nome e url.");
+            }
+            if (concorrencia < 1 || paginas < 1) {
+                throw new IllegalArgumentException("A concorrência e as páginas da fonte " + nome + " devem ser positivas.");
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Tratamento de erros dos consumidores Kafka. O listener indica o registro que
+ * falhou com uma {@link org.springframework.kafka.listener.BatchListenerFailedException};
+ * os offsets anteriores são confirmados e apenas esse registro é repetido com
+ * backoff exponencial e, ao esgotar as tentativas, enviado ao tópico de dead
+ * letter ({@code <tópico>.DLT}). Registros inválidos (JSON malformado ou
+ * campos obrigatórios ausentes) vão direto para o dead letter, sem novas
+ * tentativas. O modo batch, o ack manual e a concorrência são definidos em
+ * {@code spring.kafka.listener.*}.
+ */
+@Configuration
+public class KafkaConsumerConfig {
+
+    @Bean
+    public DeadLetterPublishingRecoverer deadLetterPublishingRecoverer(KafkaTemplate<String, String> kafkaTemplate) {
+        return new DeadLetterPublishingRecoverer(kafkaTemplate);
+    }
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(DeadLetterPublishingRecoverer deadLetterPublishingRecoverer,
+            @Value("${order.kafka.consumidor.tentativas:5}") int tentativas) {
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(tentativas);
+        backOff.setInitialInterval(1000);
+        backOff.setMultiplier(2.0);
+        backOff.setMaxInterval(30000);
+        DefaultErrorHandler errorHandler = new DefaultErrorHandler(deadLetterPublishingRecoverer, backOff);
+        errorHandler.addNotRetryableExceptions(JsonProcessingException.class, IllegalArgumentException.class);
+        return errorHandler;
+    }
+}
@@ -1,14 +1,27 @@
 package com.order;
 
+import java.net.http.HttpClient;
+
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
+    public RestTemplate restTemplate(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Com threads virtuais, o HttpClient do JDK também executa suas tarefas em threads virtuais
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("externo-a-");
+            executor.setVirtualThreads(true);
+            HttpClient httpClient = HttpClient.newBuilder().executor(executor).build();
+            return new RestTemplate(new JdkClientHttpRequestFactory(httpClient));
+        }
         return new RestTemplate();
     }
 }
@@ -0,0 +1,15 @@
+package com.order;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Habilita as tarefas agendadas, como a limpeza do outbox e a importação agendada.
+ * O relay do outbox e o monitor das réplicas usam agendadores próprios.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ImportacaoAgendadaProperties.class)
+public class SchedulingConfig {
+}
@@ -0,0 +1,47 @@
+package com.order;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.netty.channel.ChannelOption;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+@Configuration
+public class WebClientConfig {
+
+    /**
+     * WebClient não bloqueante para a API Externo A, com pool de conexões
+     * dedicado do Reactor Netty e timeouts de conexão e de leitura.
+     */
+    @Bean
+    public WebClient externoAWebClient(WebClient.Builder builder,
+            @Value("${order.externo-a.cliente.max-conexoes:50}") int maxConexoes,
+            @Value("${order.externo-a.cliente.max-aquisicoes-pendentes:1000}") int maxAquisicoesPendentes,
+            @Value("${order.externo-a.cliente.timeout-aquisicao:10s}") Duration timeoutAquisicao,
+            @Value("${order.externo-a.cliente.tempo-ocioso-max:30s}") Duration tempoOciosoMax,
+            @Value("${order.externo-a.cliente.timeout-conexao:5s}") Duration timeoutConexao,
+            @Value("${order.externo-a.cliente.timeout-leitura:30s}") Duration timeoutLeitura) {
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("externo-a")
+                .maxConnections(maxConexoes)
+                .pendingAcquireMaxCount(maxAquisicoesPendentes)
+                .pendingAcquireTimeout(timeoutAquisicao)
+                .maxIdleTime(tempoOciosoMax)
+                .evictInBackground(tempoOciosoMax)
+                .metrics(true)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) timeoutConexao.toMillis())
+                // Tempo máximo entre leituras da resposta
+                .responseTimeout(timeoutLeitura)
+                .compress(true);
+
+        return builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+    }
+}
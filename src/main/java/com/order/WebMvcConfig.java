@@ -0,0 +1,49 @@
+package com.order;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.order.controller.LimiteRequisicoesInterceptor;
+import com.order.repository.RoteamentoDataSource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final LimiteRequisicoesInterceptor limiteRequisicoesInterceptor;
+
+    private final RoteamentoDataSource roteamentoDataSource;
+
+    @Value("${order.ratelimit.habilitado:true}")
+    private boolean limiteHabilitado = true;
+
+    public WebMvcConfig(LimiteRequisicoesInterceptor limiteRequisicoesInterceptor,
+            RoteamentoDataSource roteamentoDataSource) {
+        this.limiteRequisicoesInterceptor = limiteRequisicoesInterceptor;
+        this.roteamentoDataSource = roteamentoDataSource;
+    }
+
+    /**
+     * Limpeza da última escrita da thread no {@link RoteamentoDataSource} ao fim
+     * de cada requisição, e limite de requisições por cliente na API de leitura
+     * Externo B.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                    Exception ex) {
+                roteamentoDataSource.limparEscrita();
+            }
+        });
+        if (limiteHabilitado) {
+            registry.addInterceptor(limiteRequisicoesInterceptor).addPathPatterns("/api/externo-b/**");
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.order.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import com.order.exception.LimiteRequisicoesExcedidoException;
+import com.order.service.LimiteRequisicoesService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Aplica o limite de requisições por cliente antes dos controllers.
+ * O cliente é identificado pela chave de API, quando ela é uma das chaves
+ * configuradas em {@code order.ratelimit.chaves-api}, ou pelo IP de origem; uma
+ * chave desconhecida é ignorada, para que chaves inventadas a cada requisição
+ * não criem baldes novos. O IP de origem é o resolvido pelo Tomcat
+ * ({@code server.forward-headers-strategy=native}): o X-Forwarded-For só é
+ * considerado quando a conexão vem de um proxy confiável
+ * ({@code server.tomcat.remoteip.internal-proxies}).
+ */
+@Component
+public class LimiteRequisicoesInterceptor implements HandlerInterceptor {
+
+    private static final String CABECALHO_CHAVE_API = "X-API-Key";
+
+    private final LimiteRequisicoesService limiteRequisicoesService;
+
+    private final Counter rejeicoes;
+
+    // Resumos das chaves configuradas; as chaves não são guardadas em claro
+    private final Set<String> chavesConhecidas = new HashSet<>();
+
+    public LimiteRequisicoesInterceptor(LimiteRequisicoesService limiteRequisicoesService,
+            MeterRegistry meterRegistry, @Value("${order.ratelimit.chaves-api:}") List<String> chavesApi) {
+        this.limiteRequisicoesService = limiteRequisicoesService;
+        for (String chaveApi : chavesApi) {
+            if (!chaveApi.isBlank()) {
+                chavesConhecidas.add(resumir(chaveApi.trim()));
+            }
+        }
+        this.rejeicoes = Counter.builder("order.ratelimiter.rejeicoes")
+                .description("Requisições rejeitadas pelo limite de requisições por cliente")
+                .tag("limitador", "externo-b")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // O despacho assíncrono que conclui uma resposta em streaming já foi contado
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        Duration espera = limiteRequisicoesService.consumir(identificarCliente(request));
+        if (!espera.isZero()) {
+            rejeicoes.increment();
+            throw new LimiteRequisicoesExcedidoException("Limite de requisições excedido.", espera);
+        }
+        return true;
+    }
+
+    // Métodos Auxiliares
+
+    private String identificarCliente(HttpServletRequest request) {
+        String chaveApi = request.getHeader(CABECALHO_CHAVE_API);
+        if (chaveApi != null && !chaveApi.isBlank()) {
+            // A chave não é guardada em claro, nem na memória nem no banco
+            String resumo = resumir(chaveApi.trim());
+            if (chavesConhecidas.contains(resumo)) {
+                return "chave:" + resumo;
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private String resumir(String chaveApi) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(chaveApi.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -1,24 +1,48 @@
 package com.order.controller;
 
-import com.order.service.PedidoExternoAService;
+import java.net.URI;
+import java.util.List;
+
+import com.order.exception.ResourceNotFoundException;
+import com.order.model.ImportacaoJob;
+import com.order.model.dto.ImportacaoStatusDTO;
+import com.order.service.ImportacaoService;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 @RestController
 @RequestMapping("/api/externo-a")
 public class PedidoExternoAController {
 
-    private final PedidoExternoAService pedidoExternoAService;
+    private final ImportacaoService importacaoService;
 
-    public PedidoExternoAController(PedidoExternoAService pedidoExternoAService) {
-        this.pedidoExternoAService = pedidoExternoAService;
+    public PedidoExternoAController(ImportacaoService importacaoService) {
+        this.importacaoService = importacaoService;
     }
 
     @PostMapping("/pedidos/importar")
-    public ResponseEntity<Void> importarPedidosExternosA() {
-        pedidoExternoAService.importarPedidosExternoA();
-        return ResponseEntity.ok().build();
+    public ResponseEntity<ImportacaoStatusDTO> importarPedidosExternosA(
+            @RequestParam(defaultValue = "false") boolean streaming,
+            @RequestParam(defaultValue = "false") boolean reativo,
+            @RequestParam(required = false) List<String> fontes,
+            @RequestParam(defaultValue = "1") int paginas) {
+        ImportacaoJob.Modo modo = reativo ? ImportacaoJob.Modo.REATIVO
+                : streaming ? ImportacaoJob.Modo.STREAMING : ImportacaoJob.Modo.PADRAO;
+        ImportacaoJob job = importacaoService.iniciar(modo, fontes != null ? fontes : List.of(), paginas);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/externo-a/importacoes/" + job.getId()))
+                .body(ImportacaoStatusDTO.de(job));
+    }
+
+    @GetMapping("/importacoes/{id}")
+    public ResponseEntity<ImportacaoStatusDTO> findImportacaoById(@PathVariable String id) {
+        return importacaoService.findById(id)
+                .map(job -> ResponseEntity.ok(ImportacaoStatusDTO.de(job)))
+                .orElseThrow(() -> new ResourceNotFoundException("Importação não encontrada: " + id));
     }
 }
@@ -1,60 +1,205 @@
 package com.order.controller;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.order.exception.ResourceNotFoundException;
-import com.order.model.Pedido;
+import com.order.model.dto.CursorPedido;
+import com.order.model.dto.EstatisticaPedidosDTO;
+import com.order.model.dto.FormatoExportacao;
+import com.order.model.dto.Granularidade;
+import com.order.model.dto.PaginaCursor;
+import com.order.model.dto.PaginaKeyset;
+import com.order.model.dto.PedidoDTO;
+import com.order.model.dto.PedidoSnapshot;
+import com.order.model.dto.VersaoPedido;
+import com.order.service.EstatisticaService;
+import com.order.service.PedidoConsultaService;
+import com.order.service.PedidoExportacaoService;
 import com.order.service.PedidoService;
 
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
-
 @RestController
 @RequestMapping("/api/externo-b")
 public class PedidoExternoBController {
 
     private final PedidoService pedidoService;
 
-    public PedidoExternoBController(PedidoService pedidoService) {
+    private final PedidoConsultaService pedidoConsultaService;
+
+    private final EstatisticaService estatisticaService;
+
+    private final PedidoExportacaoService pedidoExportacaoService;
+
+    @Value("${order.externo-b.tamanho-maximo-pagina:1000}")
+    private int tamanhoMaximoPagina = 1000;
+
+    public PedidoExternoBController(PedidoService pedidoService, PedidoConsultaService pedidoConsultaService,
+            EstatisticaService estatisticaService, PedidoExportacaoService pedidoExportacaoService) {
         this.pedidoService = pedidoService;
+        this.pedidoConsultaService = pedidoConsultaService;
+        this.estatisticaService = estatisticaService;
+        this.pedidoExportacaoService = pedidoExportacaoService;
     }
 
-    @SuppressWarnings("unchecked")
     @GetMapping("/pedidos")
-    @RateLimiter(name = "pedidosRateLimiter", fallbackMethod = "rateLimitExceeded")
-    public ResponseEntity<Page<Pedido>> findAll(@RequestParam int pagina, @RequestParam int tamanho) {
-        Pageable pageable = PageRequest.of(pagina, tamanho);
-        return (ResponseEntity<Page<Pedido>>) pedidoService.findAll(pageable);
+    public ResponseEntity<Page<PedidoDTO>> findAll(@RequestParam int pagina, @RequestParam int tamanho,
+            WebRequest request) {
+        Pageable pageable = PageRequest.of(pagina, limitarTamanho(tamanho));
+        boolean condicional = isCondicional(request);
+        if (condicional && request.checkNotModified(pedidoService.etagFindAll(pageable))) {
+            return null;
+        }
+        Page<PedidoDTO> pedidos = pedidoService.findAll(pageable);
+        return comEtag(ResponseEntity.ok(), condicional,
+                VersaoPedido.etagPagina(versoes(pedidos.getContent()), pedidos.getTotalElements()), -1)
+                .body(pedidos);
+    }
 
-        
+    @GetMapping(value = "/pedidos", params = "apos")
+    public ResponseEntity<PaginaKeyset<PedidoDTO>> findAllApos(@RequestParam Long apos, @RequestParam int tamanho,
+            WebRequest request) {
+        tamanho = limitarTamanho(tamanho);
+        boolean condicional = isCondicional(request);
+        if (condicional && request.checkNotModified(pedidoService.etagFindAllApos(apos, tamanho))) {
+            return null;
+        }
+        List<PedidoDTO> pedidos = pedidoService.findAllApos(apos, tamanho);
+        Long proximo = pedidos.isEmpty() || pedidos.size() < tamanho ? null : pedidos.get(pedidos.size() - 1).id();
+        return comEtag(ResponseEntity.ok(), condicional, VersaoPedido.etagPagina(versoes(pedidos), -1), -1)
+                .body(new PaginaKeyset<>(pedidos, proximo));
+    }
+
+    @GetMapping(value = "/pedidos", params = "desde")
+    public ResponseEntity<PaginaCursor<PedidoDTO>> findAllDesde(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(required = false) String cursor, @RequestParam int tamanho) {
+        tamanho = limitarTamanho(tamanho);
+        CursorPedido posicao = cursor != null ? CursorPedido.decodificar(cursor) : new CursorPedido(desde, 0L);
+        List<PedidoDTO> pedidos = pedidoService.findAllCadastradosApos(posicao, ate, tamanho);
+        PedidoDTO ultimo = pedidos.isEmpty() || pedidos.size() < tamanho ? null : pedidos.get(pedidos.size() - 1);
+        String proximo = ultimo == null ? null : new CursorPedido(ultimo.dataCadastro(), ultimo.id()).codificar();
+        return ResponseEntity.ok(new PaginaCursor<>(pedidos, proximo));
+    }
+
+    @GetMapping("/pedidos/exportacao")
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(formato.tipoConteudo()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("pedidos." + formato.extensao()).build().toString())
+                .body(saida -> pedidoExportacaoService.exportar(formato, desde, ate, saida));
     }
 
     @GetMapping("/pedidos/{id}")
-    public ResponseEntity<Pedido> findById(@PathVariable Long id) {
-        Pedido pedido = pedidoService.findById(id)
+    public ResponseEntity<byte[]> findById(@PathVariable Long id, WebRequest request) {
+        boolean condicional = isCondicional(request);
+        if (condicional && naoModificado(request, pedidoConsultaService.findVersaoById(id))) {
+            return null;
+        }
+        PedidoSnapshot pedido = pedidoConsultaService.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com ID: " + id));
-        return ResponseEntity.ok(pedido);
+        return respostaPedido(pedido, condicional);
     }
 
     @GetMapping("/pedidos/numero/{numeroPedido}")
-    public ResponseEntity<Pedido> findByNumeroPedido(@PathVariable String numeroPedido) {
-        Pedido pedido = pedidoService.findByNumeroPedido(numeroPedido)
+    public ResponseEntity<byte[]> findByNumeroPedido(@PathVariable String numeroPedido, WebRequest request) {
+        boolean condicional = isCondicional(request);
+        if (condicional && naoModificado(request, pedidoConsultaService.findVersaoByNumeroPedido(numeroPedido))) {
+            return null;
+        }
+        PedidoSnapshot pedido = pedidoConsultaService.findByNumeroPedido(numeroPedido)
                 .orElseThrow(() -> new ResourceNotFoundException("Pedido não encontrado com número: " + numeroPedido));
-        return ResponseEntity.ok(pedido);
+        return respostaPedido(pedido, condicional);
     }
 
-    public List<Pedido> rateLimitExceeded(Throwable t) {
-    throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Limite de requisições excedido.");
-}
+    @GetMapping("/estatisticas")
+    public ResponseEntity<List<EstatisticaPedidosDTO>> estatisticas(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate,
+            @RequestParam(defaultValue = "DIA") Granularidade granularidade) {
+        return ResponseEntity.ok(estatisticaService.consultar(de, ate, granularidade));
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Limita o tamanho da página ao máximo configurado, para que uma requisição
+     * não carregue uma página ilimitada em memória.
+     *
+     * @throws IllegalArgumentException Caso o tamanho não seja positivo
+     */
+    private int limitarTamanho(int tamanho) {
+        if (tamanho <= 0) {
+            throw new IllegalArgumentException("O tamanho da página deve ser positivo.");
+        }
+        return Math.min(tamanho, tamanhoMaximoPagina);
+    }
+
+    /**
+     * Indica se a requisição é condicional. Só nesse caso vale consultar a versão
+     * antes do corpo; nas demais, a versão vem junto com o pedido.
+     */
+    private boolean isCondicional(WebRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    /**
+     * Compara a versão do pedido com os cabeçalhos condicionais. Quando o pedido
+     * não mudou, o {@link WebRequest} já prepara a resposta 304 e o corpo não é
+     * carregado. Pedidos inexistentes seguem o fluxo normal, que responde 404.
+     */
+    private boolean naoModificado(WebRequest request, Optional<VersaoPedido> versao) {
+        return versao.isPresent() && request.checkNotModified(versao.get().etag(), versao.get().ultimaModificacao());
+    }
+
+    private ResponseEntity<byte[]> respostaPedido(PedidoSnapshot pedido, boolean condicional) {
+        VersaoPedido versao = pedido.versao();
+        return comEtag(ResponseEntity.ok(), condicional, versao.etag(), versao.ultimaModificacao())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(pedido.json());
+    }
+
+    /**
+     * Adiciona a ETag e o Last-Modified à resposta. Nas requisições condicionais
+     * os cabeçalhos já foram gravados pelo {@link WebRequest#checkNotModified} e
+     * não são repetidos.
+     */
+    private ResponseEntity.BodyBuilder comEtag(ResponseEntity.BodyBuilder resposta, boolean condicional, String etag,
+            long ultimaModificacao) {
+        if (condicional) {
+            return resposta;
+        }
+        resposta.eTag(etag);
+        if (ultimaModificacao >= 0) {
+            resposta.lastModified(ultimaModificacao);
+        }
+        return resposta;
+    }
+
+    private List<VersaoPedido> versoes(List<PedidoDTO> pedidos) {
+        return pedidos.stream().map(VersaoPedido::de).toList();
+    }
 }
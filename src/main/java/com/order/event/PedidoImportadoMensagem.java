@@ -0,0 +1,38 @@
+package com.order.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Mensagem publicada no Kafka para cada pedido importado. Leva apenas os IDs
+ * dos produtos, não os cadastros completos, para manter o registro pequeno.
+ *
+ * @param id                 O ID do pedido
+ * @param numeroPedido       O número do pedido, também usado como chave do registro
+ * @param valor              O valor total do pedido
+ * @param descontoPercentual O desconto percentual do pedido
+ * @param dataCadastro       A data de cadastro do pedido
+ * @param itens              Os produtos do pedido e suas quantidades
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record PedidoImportadoMensagem(
+        Long id,
+        String numeroPedido,
+        BigDecimal valor,
+        @JsonProperty("desconto_percentual") BigDecimal descontoPercentual,
+        @JsonProperty("data_cadastro") LocalDateTime dataCadastro,
+        List<Item> itens) {
+
+    /**
+     * Item do pedido.
+     *
+     * @param produtoId  O ID do produto
+     * @param quantidade A quantidade do produto
+     */
+    public record Item(Long produtoId, int quantidade) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.order.event;
+
+import java.util.List;
+
+import com.order.model.Pedido;
+
+/**
+ * Evento publicado quando um lote de pedidos importados é gravado no banco de dados.
+ *
+ * @param pedidos Pedidos inseridos no lote, já com os IDs atribuídos
+ */
+public record PedidosImportadosEvent(List<Pedido> pedidos) {
+}
@@ -0,0 +1,7 @@
+package com.order.exception;
+
+public class ImportacaoRejeitadaException extends RuntimeException {
+    public ImportacaoRejeitadaException(String message) {
+        super(message);
+    }
+}
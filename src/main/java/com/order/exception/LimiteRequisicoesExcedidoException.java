@@ -0,0 +1,17 @@
+package com.order.exception;
+
+import java.time.Duration;
+
+public class LimiteRequisicoesExcedidoException extends RuntimeException {
+
+    private final Duration espera;
+
+    public LimiteRequisicoesExcedidoException(String message, Duration espera) {
+        super(message);
+        this.espera = espera;
+    }
+
+    public Duration getEspera() {
+        return espera;
+    }
+}
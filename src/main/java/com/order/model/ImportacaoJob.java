@@ -0,0 +1,99 @@
+package com.order.model;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.order.model.dto.ResultadoImportacao;
+
+import lombok.Getter;
+
+/**
+ * Estado de uma importação de pedidos do Externo A. Os contadores são
+ * atualizados lote a lote pela thread que executa a importação e lidos pelo
+ * endpoint de status, por isso são atômicos.
+ */
+@Getter
+public class ImportacaoJob {
+
+    public enum Modo {
+        PADRAO, STREAMING, REATIVO, AGENDADO
+    }
+
+    public enum Status {
+        NA_FILA, EM_EXECUCAO, CONCLUIDA, FALHOU
+    }
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final Modo modo;
+
+    private final Instant criadoEm = Instant.now();
+
+    private volatile Status status = Status.NA_FILA;
+
+    private volatile Instant iniciadoEm;
+
+    private volatile Instant finalizadoEm;
+
+    private volatile String erro;
+
+    private final AtomicLong recebidos = new AtomicLong();
+
+    private final AtomicLong duplicados = new AtomicLong();
+
+    private final AtomicLong inseridos = new AtomicLong();
+
+    private final AtomicLong falhas = new AtomicLong();
+
+    public ImportacaoJob(Modo modo) {
+        this.modo = modo;
+    }
+
+    public void iniciar() {
+        iniciadoEm = Instant.now();
+        status = Status.EM_EXECUCAO;
+    }
+
+    public void registrar(ResultadoImportacao resultado) {
+        recebidos.addAndGet(resultado.recebidos());
+        duplicados.addAndGet(resultado.duplicados());
+        inseridos.addAndGet(resultado.inseridos());
+    }
+
+    /**
+     * Registra um lote cuja transação falhou; os pedidos do lote contam como
+     * recebidos e com falha, e a importação segue para o próximo lote.
+     */
+    public void registrarFalha(int quantidade, Exception causa) {
+        recebidos.addAndGet(quantidade);
+        falhas.addAndGet(quantidade);
+        erro = causa.getMessage();
+    }
+
+    public void concluir() {
+        finalizadoEm = Instant.now();
+        status = Status.CONCLUIDA;
+    }
+
+    public void falhar(Exception causa) {
+        erro = causa.getMessage();
+        finalizadoEm = Instant.now();
+        status = Status.FALHOU;
+    }
+
+    /**
+     * Duração da execução até o momento, ou até o fim caso já tenha terminado.
+     */
+    public Duration duracao() {
+        if (iniciadoEm == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(iniciadoEm, finalizadoEm != null ? finalizadoEm : Instant.now());
+    }
+
+    public boolean finalizadoAntesDe(Instant instante) {
+        return finalizadoEm != null && finalizadoEm.isBefore(instante);
+    }
+}
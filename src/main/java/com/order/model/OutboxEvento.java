@@ -0,0 +1,45 @@
+package com.order.model;
+
+import java.time.OffsetDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Evento pendente de publicação no Kafka, gravado na mesma transação que os
+ * pedidos. É lido e gravado via JDBC pelo {@code OutboxRepository}; a tabela
+ * é criada pelas migrações, e o mapeamento JPA existe para a sua validação.
+ */
+@Entity
+@Table(name = "outbox_evento", indexes = @Index(name = "idx_outbox_evento_pendente", columnList = "enviado_em, id"))
+@Getter
+@Setter
+public class OutboxEvento {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topico;
+
+    private String chave;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+
+    @Column(nullable = false)
+    private OffsetDateTime criadoEm = OffsetDateTime.now();
+
+    private OffsetDateTime enviadoEm;
+
+    private OffsetDateTime reservadoAte;
+
+}
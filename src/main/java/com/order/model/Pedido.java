@@ -1,9 +1,13 @@
 package com.order.model;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import jakarta.persistence.CascadeType;
@@ -14,7 +18,9 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Version;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
@@ -33,16 +39,33 @@ public class Pedido {
     @Column(nullable = false, unique = true)
     private String numeroPedido;
 
-    private Double valor;
+    @Column(precision = 19, scale = 2)
+    private BigDecimal valor;
 
     @JsonProperty("desconto_percentual")
-    private Double descontoPercentual;
+    @Column(precision = 5, scale = 2)
+    private BigDecimal descontoPercentual;
 
     @JsonProperty("data_cadastro")
     private LocalDateTime dataCadastro = LocalDateTime.now();
 
+    /**
+     * Versão do pedido, incrementada pelo Hibernate a cada alteração; compõe a
+     * ETag das respostas da API.
+     */
+    @Version
+    private Long versao;
+
+    @JsonProperty("data_atualizacao")
+    private LocalDateTime dataAtualizacao = dataCadastro;
+
     @JsonProperty("produtos")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido-itens")
     @OneToMany(mappedBy = "pedido", fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PedidoProduto> pedidoProdutos = new ArrayList<>();
 
+    @PreUpdate
+    void registrarAtualizacao() {
+        this.dataAtualizacao = LocalDateTime.now();
+    }
 }
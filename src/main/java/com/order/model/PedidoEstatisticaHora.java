@@ -0,0 +1,33 @@
+package com.order.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Totais de pedidos por hora de cadastro, mantidos incrementalmente a cada
+ * lote importado. É lida e gravada via JDBC pelo {@code EstatisticaRepository};
+ * a tabela é criada pelas migrações, e o mapeamento JPA existe para a sua validação.
+ */
+@Entity
+@Table(name = "pedido_estatistica_hora")
+@Getter
+@Setter
+public class PedidoEstatisticaHora {
+
+    @Id
+    private LocalDateTime hora;
+
+    @Column(nullable = false)
+    private long quantidade;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal valorTotal;
+
+}
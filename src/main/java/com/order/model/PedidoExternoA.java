@@ -2,6 +2,7 @@ package com.order.model;
 
 import lombok.Getter;
 import lombok.Setter;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -12,11 +13,14 @@ public class PedidoExternoA {
 
     private Long id;
     private String numeroPedido;
-    private Double valor;
-    private Double descontoPercentual;
+    private BigDecimal valor;
+    private BigDecimal descontoPercentual;
     private LocalDateTime dataCadastro = LocalDateTime.now();
     private List<Produto> produtos = new ArrayList<>();
 
+    public PedidoExternoA() {
+    }
+
     public PedidoExternoA(String numeroPedido, List<Produto> listaProdutos) {
         this.numeroPedido = numeroPedido;
         this.produtos = listaProdutos;
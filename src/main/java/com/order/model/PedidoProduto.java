@@ -1,7 +1,11 @@
 package com.order.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
@@ -13,7 +17,13 @@ import jakarta.persistence.SequenceGenerator;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * Item de um pedido. Fica no cache de segundo nível junto com a coleção
+ * {@link Pedido#getPedidoProdutos()}, que guarda apenas os IDs dos itens.
+ */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "pedido-produto")
 @Getter
 @Setter
 public class PedidoProduto {
@@ -1,21 +1,40 @@
 package com.order.model;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CascadeType;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
 import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.UniqueConstraint;
 import lombok.Getter;
 import lombok.Setter;
 
+/**
+ * Produto do catálogo. Dado de referência, gravado uma vez e lido por todos os
+ * pedidos que o contêm, por isso fica no cache de segundo nível. A chave natural
+ * (nome e valor) é única.
+ */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_produto_nome_valor", columnNames = { "nome", "valor" }))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "produto")
 @Getter
 @Setter
 public class Produto {
@@ -27,9 +46,33 @@ public class Produto {
 
     private String nome;
 
-    private Double valor;
+    @Column(precision = 19, scale = 2)
+    private BigDecimal valor;
+
+    /**
+     * O valor em centavos, mantido junto com {@link #valor} para que o cálculo
+     * do total dos pedidos não aloque objetos por item.
+     */
+    @JsonIgnore
+    @Transient
+    private long valorCentavos;
 
     @JsonIgnore
     @OneToMany(mappedBy = "produto", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<PedidoProduto> pedidoProdutos = new ArrayList<>();
+
+    /**
+     * Define o valor, arredondado para centavos.
+     *
+     * @param valor O valor do produto
+     */
+    public void setValor(BigDecimal valor) {
+        this.valor = valor != null ? valor.setScale(2, RoundingMode.HALF_EVEN) : null;
+        calcularValorCentavos();
+    }
+
+    @PostLoad
+    void calcularValorCentavos() {
+        this.valorCentavos = valor != null ? valor.setScale(2, RoundingMode.HALF_EVEN).unscaledValue().longValueExact() : 0;
+    }
 }
@@ -0,0 +1,45 @@
+package com.order.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Posição da paginação por data de cadastro: o último pedido da página
+ * anterior, pela chave de ordenação (dataCadastro, id). Trafega como um token
+ * opaco, em Base64 URL-safe.
+ *
+ * @param dataCadastro A data de cadastro do último pedido
+ * @param id           O ID do último pedido
+ */
+public record CursorPedido(LocalDateTime dataCadastro, long id) {
+
+    private static final char SEPARADOR = '|';
+
+    /**
+     * @return O cursor codificado como token
+     */
+    public String codificar() {
+        String valor = dataCadastro.toString() + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica um token gerado por {@link #codificar()}.
+     *
+     * @param token O token recebido do cliente
+     * @return O cursor correspondente
+     * @throws IllegalArgumentException Caso o token seja inválido
+     */
+    public static CursorPedido decodificar(String token) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separador = valor.lastIndexOf(SEPARADOR);
+            return new CursorPedido(LocalDateTime.parse(valor.substring(0, separador)),
+                    Long.parseLong(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido: " + token, e);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.order.model.dto;
+
+import java.time.Instant;
+
+/**
+ * Estado salvo de uma fonte da importação agendada.
+ *
+ * @param nome             O nome da fonte
+ * @param posicao          A posição da última importação concluída; {@code null}
+ *                         se a fonte nunca foi importada
+ * @param proximaExecucao  O instante a partir do qual a fonte pode ser importada de novo
+ * @param devida           Se a próxima execução já chegou, pelo relógio do banco
+ */
+public record EstadoFonteImportacao(String nome, String posicao, Instant proximaExecucao, boolean devida) {
+}
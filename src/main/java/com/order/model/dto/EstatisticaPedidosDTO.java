@@ -0,0 +1,21 @@
+package com.order.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Totais de pedidos de um período.
+ *
+ * @param periodo     O início do período
+ * @param quantidade  A quantidade de pedidos cadastrados no período
+ * @param valorTotal  A soma dos valores dos pedidos
+ * @param ticketMedio O valor médio por pedido
+ */
+public record EstatisticaPedidosDTO(
+        LocalDateTime periodo,
+        long quantidade,
+        @JsonProperty("valor_total") BigDecimal valorTotal,
+        @JsonProperty("ticket_medio") BigDecimal ticketMedio) {
+}
@@ -0,0 +1,36 @@
+package com.order.model.dto;
+
+/**
+ * Formatos da exportação de pedidos.
+ */
+public enum FormatoExportacao {
+
+    /** Um pedido por linha, em JSON, com os seus itens. */
+    NDJSON("application/x-ndjson", "ndjson"),
+
+    /** Um item de pedido por linha, com os dados do pedido repetidos. */
+    CSV("text/csv;charset=UTF-8", "csv");
+
+    private final String tipoConteudo;
+
+    private final String extensao;
+
+    FormatoExportacao(String tipoConteudo, String extensao) {
+        this.tipoConteudo = tipoConteudo;
+        this.extensao = extensao;
+    }
+
+    /**
+     * @return O Content-Type da resposta
+     */
+    public String tipoConteudo() {
+        return tipoConteudo;
+    }
+
+    /**
+     * @return A extensão do arquivo exportado
+     */
+    public String extensao() {
+        return extensao;
+    }
+}
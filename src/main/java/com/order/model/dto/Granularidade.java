@@ -0,0 +1,37 @@
+package com.order.model.dto;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Tamanho dos períodos das estatísticas de pedidos.
+ */
+public enum Granularidade {
+
+    HORA("hour", ChronoUnit.HOURS),
+    DIA("day", ChronoUnit.DAYS),
+    SEMANA("week", ChronoUnit.WEEKS),
+    MES("month", ChronoUnit.MONTHS);
+
+    private final String campo;
+
+    private final ChronoUnit unidade;
+
+    Granularidade(String campo, ChronoUnit unidade) {
+        this.campo = campo;
+        this.unidade = unidade;
+    }
+
+    /**
+     * @return O campo do {@code date_trunc} do PostgreSQL correspondente
+     */
+    public String campo() {
+        return campo;
+    }
+
+    /**
+     * @return A unidade de tempo correspondente
+     */
+    public ChronoUnit unidade() {
+        return unidade;
+    }
+}
@@ -0,0 +1,33 @@
+package com.order.model.dto;
+
+import java.time.Instant;
+
+import com.order.model.ImportacaoJob;
+
+/**
+ * Situação de uma importação: contagens, vazão e tempos.
+ */
+public record ImportacaoStatusDTO(
+        String id,
+        ImportacaoJob.Modo modo,
+        ImportacaoJob.Status status,
+        long recebidos,
+        long duplicados,
+        long inseridos,
+        long falhas,
+        double pedidosPorSegundo,
+        Instant criadoEm,
+        Instant iniciadoEm,
+        Instant finalizadoEm,
+        long duracaoMs,
+        String erro) {
+
+    public static ImportacaoStatusDTO de(ImportacaoJob job) {
+        long duracaoMs = job.duracao().toMillis();
+        long recebidos = job.getRecebidos().get();
+        double pedidosPorSegundo = duracaoMs > 0 ? recebidos * 1000.0 / duracaoMs : 0;
+        return new ImportacaoStatusDTO(job.getId(), job.getModo(), job.getStatus(), recebidos,
+                job.getDuplicados().get(), job.getInseridos().get(), job.getFalhas().get(), pedidosPorSegundo,
+                job.getCriadoEm(), job.getIniciadoEm(), job.getFinalizadoEm(), duracaoMs, job.getErro());
+    }
+}
@@ -0,0 +1,13 @@
+package com.order.model.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados da paginação por cursor opaco.
+ *
+ * @param itens   Itens da página
+ * @param proximo Cursor para a próxima página (valor de {@code cursor}), ou
+ *                {@code null} quando não houver mais itens
+ */
+public record PaginaCursor<T>(List<T> itens, String proximo) {
+}
@@ -0,0 +1,13 @@
+package com.order.model.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados da paginação keyset.
+ *
+ * @param itens   Itens da página
+ * @param proximo Cursor para a próxima página (valor de {@code apos}), ou
+ *                {@code null} quando não houver mais itens
+ */
+public record PaginaKeyset<T>(List<T> itens, Long proximo) {
+}
@@ -0,0 +1,22 @@
+package com.order.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Representação imutável de um pedido para as consultas da API Externo B.
+ * Mantém o mesmo formato JSON da entidade {@link com.order.model.Pedido}.
+ */
+public record PedidoDTO(
+        Long id,
+        String numeroPedido,
+        BigDecimal valor,
+        @JsonProperty("desconto_percentual") BigDecimal descontoPercentual,
+        @JsonProperty("data_cadastro") LocalDateTime dataCadastro,
+        Long versao,
+        @JsonProperty("data_atualizacao") LocalDateTime dataAtualizacao,
+        @JsonProperty("produtos") List<PedidoProdutoDTO> pedidoProdutos) {
+}
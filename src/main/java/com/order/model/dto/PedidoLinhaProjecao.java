@@ -0,0 +1,24 @@
+package com.order.model.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Projeção de uma linha da consulta de pedidos com seus itens e produtos.
+ * Cada linha combina os dados do pedido com um item; pedidos sem itens geram
+ * uma única linha com os campos do item nulos.
+ */
+public record PedidoLinhaProjecao(
+        Long pedidoId,
+        String numeroPedido,
+        BigDecimal valor,
+        BigDecimal descontoPercentual,
+        LocalDateTime dataCadastro,
+        Long versao,
+        LocalDateTime dataAtualizacao,
+        Long pedidoProdutoId,
+        Long produtoId,
+        String produtoNome,
+        BigDecimal produtoValor,
+        Integer quantidade) {
+}
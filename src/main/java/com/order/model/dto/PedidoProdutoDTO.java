@@ -0,0 +1,9 @@
+package com.order.model.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Representação imutável de um item de pedido, com os dados do produto.
+ */
+public record PedidoProdutoDTO(Long id, Long produtoId, String nome, BigDecimal valor, int quantidade) {
+}
@@ -0,0 +1,17 @@
+package com.order.model.dto;
+
+/**
+ * Pedido pronto para resposta: a representação imutável e o JSON já serializado.
+ *
+ * @param pedido O pedido
+ * @param json   O pedido serializado em JSON (UTF-8)
+ */
+public record PedidoSnapshot(PedidoDTO pedido, byte[] json) {
+
+    /**
+     * @return A versão do pedido, para a ETag e o Last-Modified da resposta
+     */
+    public VersaoPedido versao() {
+        return VersaoPedido.de(pedido);
+    }
+}
@@ -0,0 +1,18 @@
+package com.order.model.dto;
+
+/**
+ * Contagens do processamento de um lote de pedidos externos.
+ *
+ * @param recebidos  Pedidos recebidos no lote
+ * @param duplicados Pedidos descartados por repetição no lote ou por já existirem
+ * @param inseridos  Pedidos gravados no banco de dados
+ */
+public record ResultadoImportacao(int recebidos, int duplicados, int inseridos) {
+
+    public static final ResultadoImportacao VAZIO = new ResultadoImportacao(0, 0, 0);
+
+    public ResultadoImportacao somar(ResultadoImportacao outro) {
+        return new ResultadoImportacao(recebidos + outro.recebidos, duplicados + outro.duplicados,
+                inseridos + outro.inseridos);
+    }
+}
@@ -0,0 +1,62 @@
+package com.order.model.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Versão de um pedido, consultada sem carregar os itens, para responder às
+ * requisições condicionais (If-None-Match e If-Modified-Since).
+ *
+ * @param id              O ID do pedido
+ * @param versao          A versão do pedido
+ * @param dataCadastro    A data de cadastro do pedido
+ * @param dataAtualizacao A data da última alteração; {@code null} nos pedidos
+ *                        nunca alterados desde antes do versionamento
+ */
+public record VersaoPedido(Long id, Long versao, LocalDateTime dataCadastro, LocalDateTime dataAtualizacao) {
+
+    public static VersaoPedido de(PedidoDTO pedido) {
+        return new VersaoPedido(pedido.id(), pedido.versao(), pedido.dataCadastro(), pedido.dataAtualizacao());
+    }
+
+    /**
+     * @return A ETag do pedido, sem as aspas
+     */
+    public String etag() {
+        return id + "-" + versao;
+    }
+
+    /**
+     * @return O instante da última alteração, em milissegundos, ou -1 se desconhecido
+     */
+    public long ultimaModificacao() {
+        LocalDateTime data = dataAtualizacao != null ? dataAtualizacao : dataCadastro;
+        return data != null ? data.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+
+    /**
+     * Calcula a ETag de uma página: um resumo dos IDs e versões dos pedidos, na
+     * ordem da página, e do total de pedidos.
+     *
+     * @param versoes As versões dos pedidos da página, na ordem da página
+     * @param total   O total de pedidos, para páginas com contagem; senão -1
+     * @return A ETag da página, sem as aspas
+     */
+    public static String etagPagina(List<VersaoPedido> versoes, long total) {
+        StringBuilder conteudo = new StringBuilder(versoes.size() * 16).append(total);
+        for (VersaoPedido versao : versoes) {
+            conteudo.append(',').append(versao.etag());
+        }
+        try {
+            byte[] resumo = MessageDigest.getInstance("SHA-256").digest(conteudo.toString().getBytes(StandardCharsets.UTF_8));
+            return "p-" + HexFormat.of().formatHex(resumo, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package com.order.model.mapper;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.order.event.PedidoImportadoMensagem;
 import com.order.model.Pedido;
 import com.order.model.PedidoExternoA;
+import com.order.model.dto.PedidoDTO;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.model.dto.PedidoProdutoDTO;
 
 public class PedidoMapper {
 
@@ -12,4 +19,42 @@ public class PedidoMapper {
         pedido.setDescontoPercentual(pedidoExternoA.getDescontoPercentual());
         return pedido;
     }
+
+    /**
+     * Agrupa as linhas da projeção em pedidos. As linhas de um mesmo pedido devem
+     * estar consecutivas, como retornadas pela consulta ordenada por pedido.
+     */
+    public static List<PedidoDTO> toDTOs(List<PedidoLinhaProjecao> linhas) {
+        List<PedidoDTO> pedidos = new ArrayList<>();
+        int inicio = 0;
+        while (inicio < linhas.size()) {
+            PedidoLinhaProjecao primeira = linhas.get(inicio);
+            List<PedidoProdutoDTO> itens = new ArrayList<>();
+
+            int fim = inicio;
+            while (fim < linhas.size() && linhas.get(fim).pedidoId().equals(primeira.pedidoId())) {
+                PedidoLinhaProjecao linha = linhas.get(fim);
+                if (linha.pedidoProdutoId() != null) {
+                    itens.add(new PedidoProdutoDTO(linha.pedidoProdutoId(), linha.produtoId(),
+                            linha.produtoNome(), linha.produtoValor(), linha.quantidade()));
+                }
+                fim++;
+            }
+
+            pedidos.add(new PedidoDTO(primeira.pedidoId(), primeira.numeroPedido(), primeira.valor(),
+                    primeira.descontoPercentual(), primeira.dataCadastro(), primeira.versao(),
+                    primeira.dataAtualizacao(), List.copyOf(itens)));
+            inicio = fim;
+        }
+        return pedidos;
+    }
+
+    public static PedidoImportadoMensagem toMensagem(Pedido pedido) {
+        List<PedidoImportadoMensagem.Item> itens = pedido.getPedidoProdutos().stream()
+                .map(pedidoProduto -> new PedidoImportadoMensagem.Item(pedidoProduto.getProduto().getId(),
+                        pedidoProduto.getQuantidade()))
+                .toList();
+        return new PedidoImportadoMensagem(pedido.getId(), pedido.getNumeroPedido(), pedido.getValor(),
+                pedido.getDescontoPercentual(), pedido.getDataCadastro(), itens);
+    }
 }
@@ -0,0 +1,89 @@
+package com.order.repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.PedidoEstatisticaHora;
+import com.order.model.dto.Granularidade;
+
+/**
+ * Acesso à tabela pedido_estatistica_hora via JDBC.
+ * Os totais de cada lote são somados às horas existentes com
+ * {@code ON CONFLICT (hora) DO UPDATE}, em um único comando por lote.
+ */
+@Repository
+public class EstatisticaRepository {
+
+    private static final String SQL_ACUMULAR = "INSERT INTO pedido_estatistica_hora (hora, quantidade, valor_total) "
+            + "SELECT * FROM unnest(?::timestamp[], ?::bigint[], ?::numeric[]) "
+            + "ON CONFLICT (hora) DO UPDATE SET "
+            + "quantidade = pedido_estatistica_hora.quantidade + EXCLUDED.quantidade, "
+            + "valor_total = pedido_estatistica_hora.valor_total + EXCLUDED.valor_total";
+
+    private static final String SQL_CONSULTAR = "SELECT date_trunc(?, hora) AS periodo, "
+            + "sum(quantidade) AS quantidade, sum(valor_total) AS valor_total "
+            + "FROM pedido_estatistica_hora WHERE hora >= ? AND hora < ? GROUP BY 1 ORDER BY 1";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EstatisticaRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Soma os totais informados às horas correspondentes, criando as que não
+     * existirem. Deve ser chamado na transação que grava os pedidos. As horas
+     * devem vir ordenadas, para que transações concorrentes bloqueiem as linhas
+     * na mesma ordem e não entrem em deadlock.
+     *
+     * @param totais Totais por hora, ordenados pela hora
+     */
+    public void acumular(List<PedidoEstatisticaHora> totais) {
+        if (totais.isEmpty()) {
+            return;
+        }
+        int quantidade = totais.size();
+        Timestamp[] horas = new Timestamp[quantidade];
+        Long[] quantidades = new Long[quantidade];
+        BigDecimal[] valores = new BigDecimal[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            PedidoEstatisticaHora total = totais.get(i);
+            horas[i] = Timestamp.valueOf(total.getHora());
+            quantidades[i] = total.getQuantidade();
+            valores[i] = total.getValorTotal();
+        }
+
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_ACUMULAR);
+            ps.setArray(1, con.createArrayOf("timestamp", horas));
+            ps.setArray(2, con.createArrayOf("bigint", quantidades));
+            ps.setArray(3, con.createArrayOf("numeric", valores));
+            return ps;
+        });
+    }
+
+    /**
+     * Agrega as horas do intervalo em períodos da granularidade informada.
+     * O custo é proporcional à quantidade de horas do intervalo, não à de pedidos.
+     *
+     * @param de            Início do intervalo, inclusivo
+     * @param ate           Fim do intervalo, exclusivo
+     * @param granularidade O tamanho dos períodos
+     * @return Os totais por período com pedidos, em ordem cronológica
+     */
+    public List<PedidoEstatisticaHora> consultar(LocalDateTime de, LocalDateTime ate, Granularidade granularidade) {
+        return jdbcTemplate.query(SQL_CONSULTAR, (rs, linha) -> {
+            PedidoEstatisticaHora total = new PedidoEstatisticaHora();
+            total.setHora(rs.getTimestamp("periodo").toLocalDateTime());
+            total.setQuantidade(rs.getLong("quantidade"));
+            total.setValorTotal(rs.getBigDecimal("valor_total"));
+            return total;
+        }, granularidade.campo(), Timestamp.valueOf(de), Timestamp.valueOf(ate));
+    }
+}
@@ -0,0 +1,141 @@
+package com.order.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.dto.EstadoFonteImportacao;
+
+/**
+ * Estado das fontes da importação agendada, na tabela importacao_fonte, e o
+ * bloqueio que garante uma única instância importando cada fonte.
+ * O bloqueio é um advisory lock de sessão do PostgreSQL: fica preso à conexão
+ * que o obteve e é liberado no fim da importação ou, se a instância cair, quando
+ * o banco encerra a conexão. A leitura e a gravação do estado da fonte usam a
+ * mesma conexão do bloqueio, de modo que cada fonte em execução ocupa uma única
+ * conexão própria além das usadas pelos lotes de pedidos.
+ */
+@Repository
+public class ImportacaoFonteRepository {
+
+    private static final String SQL_BLOQUEAR = "SELECT pg_try_advisory_lock(hashtext('importacao_fonte:' || ?))";
+
+    private static final String SQL_DESBLOQUEAR = "SELECT pg_advisory_unlock(hashtext('importacao_fonte:' || ?))";
+
+    private static final String SQL_REGISTRAR = "INSERT INTO importacao_fonte (nome) VALUES (?) "
+            + "ON CONFLICT (nome) DO NOTHING";
+
+    private static final String SQL_BUSCAR = "SELECT nome, posicao, proxima_execucao, "
+            + "proxima_execucao <= now() AS devida FROM importacao_fonte WHERE nome = ?";
+
+    private static final String SQL_REGISTRAR_SUCESSO = "UPDATE importacao_fonte SET posicao = ?, "
+            + "ultima_execucao = now(), proxima_execucao = now() + ? * interval '1 millisecond', ultimo_erro = NULL "
+            + "WHERE nome = ?";
+
+    private static final String SQL_REGISTRAR_FALHA = "UPDATE importacao_fonte SET "
+            + "ultima_execucao = now(), proxima_execucao = now() + ? * interval '1 millisecond', "
+            + "ultimo_erro = left(?, 1000) WHERE nome = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImportacaoFonteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Executa a tarefa com o bloqueio da fonte, se nenhuma outra instância o
+     * detiver. A conexão do bloqueio fica reservada durante toda a tarefa e é
+     * usada para ler e gravar o estado da fonte.
+     *
+     * @param nome   O nome da fonte
+     * @param tarefa A tarefa, que recebe a fonte bloqueada com o estado lido já
+     *               com o bloqueio
+     * @return true se o bloqueio foi obtido e a tarefa executada
+     */
+    public boolean executarComBloqueio(String nome, Consumer<FonteBloqueada> tarefa) {
+        Boolean executou = jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            if (!consultarBloqueio(con.prepareStatement(SQL_BLOQUEAR), nome)) {
+                return false;
+            }
+            try {
+                JdbcTemplate conexaoBloqueio = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+                conexaoBloqueio.update(SQL_REGISTRAR, nome);
+                EstadoFonteImportacao estado = conexaoBloqueio.queryForObject(SQL_BUSCAR, this::mapearEstado, nome);
+                tarefa.accept(new FonteBloqueada(conexaoBloqueio, estado));
+                return true;
+            } finally {
+                consultarBloqueio(con.prepareStatement(SQL_DESBLOQUEAR), nome);
+            }
+        });
+        return Boolean.TRUE.equals(executou);
+    }
+
+    /**
+     * Uma fonte cujo bloqueio está com esta instância. O estado é gravado na
+     * conexão que detém o bloqueio, sem ocupar outra conexão do pool.
+     */
+    public static class FonteBloqueada {
+
+        private final JdbcTemplate conexaoBloqueio;
+
+        private final EstadoFonteImportacao estado;
+
+        FonteBloqueada(JdbcTemplate conexaoBloqueio, EstadoFonteImportacao estado) {
+            this.conexaoBloqueio = conexaoBloqueio;
+            this.estado = estado;
+        }
+
+        /**
+         * Retorna o estado da fonte, lido após a obtenção do bloqueio.
+         *
+         * @return O estado da fonte
+         */
+        public EstadoFonteImportacao estado() {
+            return estado;
+        }
+
+        /**
+         * Registra uma importação concluída e agenda a próxima.
+         *
+         * @param posicao   A nova posição da fonte
+         * @param intervalo O intervalo até a próxima execução
+         */
+        public void registrarSucesso(String posicao, Duration intervalo) {
+            conexaoBloqueio.update(SQL_REGISTRAR_SUCESSO, posicao, intervalo.toMillis(), estado.nome());
+        }
+
+        /**
+         * Registra uma importação com falha, mantendo a posição para que a próxima
+         * execução repita o mesmo intervalo de pedidos.
+         *
+         * @param erro      A mensagem do erro
+         * @param intervalo O intervalo até a próxima execução
+         */
+        public void registrarFalha(String erro, Duration intervalo) {
+            conexaoBloqueio.update(SQL_REGISTRAR_FALHA, intervalo.toMillis(), erro, estado.nome());
+        }
+    }
+
+    // Métodos Auxiliares
+
+    private boolean consultarBloqueio(PreparedStatement ps, String nome) throws SQLException {
+        try (ps) {
+            ps.setString(1, nome);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getBoolean(1);
+            }
+        }
+    }
+
+    private EstadoFonteImportacao mapearEstado(ResultSet rs, int linha) throws SQLException {
+        return new EstadoFonteImportacao(rs.getString("nome"), rs.getString("posicao"),
+                rs.getTimestamp("proxima_execucao").toInstant(), rs.getBoolean("devida"));
+    }
+}
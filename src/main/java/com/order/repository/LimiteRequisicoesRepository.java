@@ -0,0 +1,59 @@
+package com.order.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Baldes do limite de requisições compartilhados entre as instâncias, na
+ * tabela limite_requisicao (UNLOGGED: o estado é descartável e não gera WAL).
+ * Cada consumo é um único comando atômico, com o relógio do banco, no mesmo
+ * algoritmo do {@code TokenBucket}: a linha guarda, em microssegundos, o
+ * instante teórico em que o balde volta a ficar cheio.
+ */
+@Repository
+public class LimiteRequisicoesRepository {
+
+    private static final String AGORA_MICROS = "(extract(epoch FROM clock_timestamp()) * 1000000)::bigint";
+
+    private static final String SQL_CONSUMIR = "INSERT INTO limite_requisicao AS l (chave, instante_teorico) "
+            + "VALUES (?, " + AGORA_MICROS + " + ?) "
+            + "ON CONFLICT (chave) DO UPDATE SET instante_teorico = greatest(l.instante_teorico + ?, EXCLUDED.instante_teorico) "
+            + "WHERE greatest(l.instante_teorico + ?, EXCLUDED.instante_teorico) - EXCLUDED.instante_teorico <= ? "
+            + "RETURNING instante_teorico";
+
+    private static final String SQL_REMOVER_CHEIOS = "DELETE FROM limite_requisicao WHERE instante_teorico < "
+            + AGORA_MICROS;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LimiteRequisicoesRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Tenta consumir de uma vez a quantidade de tokens informada do balde do
+     * cliente; ou todos são consumidos, ou nenhum.
+     *
+     * @param chave            A chave do cliente
+     * @param quantidade       A quantidade de tokens, no máximo a capacidade do balde
+     * @param intervaloMicros  O tempo de reposição de um token
+     * @param toleranciaMicros O avanço máximo além do relógio
+     * @return true se os tokens foram consumidos
+     */
+    public boolean consumir(String chave, int quantidade, long intervaloMicros, long toleranciaMicros) {
+        long incremento = intervaloMicros * quantidade;
+        // Os tokens além do primeiro reduzem o avanço permitido antes do consumo
+        long tolerancia = toleranciaMicros - intervaloMicros * (quantidade - 1);
+        return !jdbcTemplate.queryForList(SQL_CONSUMIR, Long.class, chave, incremento, incremento, incremento,
+                tolerancia).isEmpty();
+    }
+
+    /**
+     * Remove os baldes já cheios, equivalentes a um cliente sem requisições recentes.
+     *
+     * @return A quantidade de baldes removidos
+     */
+    public int removerCheios() {
+        return jdbcTemplate.update(SQL_REMOVER_CHEIOS);
+    }
+}
@@ -0,0 +1,182 @@
+package com.order.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.OutboxEvento;
+
+/**
+ * Acesso à tabela outbox_evento via JDBC.
+ * Um único relay publica por vez entre as instâncias: o relay detém um advisory
+ * lock de sessão do PostgreSQL enquanto reserva, publica e marca um lote, e as
+ * demais instâncias pulam a execução. Assim dois relays nunca publicam eventos
+ * da mesma chave ao mesmo tempo, o que a reserva sozinha não garante, já que um
+ * relay não enxerga a reserva ainda não confirmada de outro.
+ * A reserva de eventos grava um prazo em {@code reservado_ate} em um único
+ * comando, com {@code FOR UPDATE SKIP LOCKED}; se o relay cair durante a
+ * publicação, o bloqueio é liberado com a conexão e os eventos voltam a ser
+ * reservados quando o prazo expira.
+ */
+@Repository
+public class OutboxRepository {
+
+    private static final String SQL_BLOQUEAR_RELAY = "SELECT pg_try_advisory_lock(hashtext('outbox_relay'))";
+
+    private static final String SQL_DESBLOQUEAR_RELAY = "SELECT pg_advisory_unlock(hashtext('outbox_relay'))";
+
+    private static final String SQL_INSERIR = "INSERT INTO outbox_evento "
+            + "(topico, chave, payload, criado_em) VALUES (?, ?, ?, ?)";
+
+    // Um evento não é reservado enquanto um evento anterior da mesma chave estiver reservado por outro relay
+    private static final String SQL_RESERVAR_PENDENTES = "UPDATE outbox_evento "
+            + "SET reservado_ate = now() + ? * interval '1 millisecond' "
+            + "WHERE id IN (SELECT e.id FROM outbox_evento e "
+            + "WHERE e.enviado_em IS NULL AND (e.reservado_ate IS NULL OR e.reservado_ate < now()) "
+            + "AND NOT EXISTS (SELECT 1 FROM outbox_evento a WHERE a.chave = e.chave AND a.id < e.id "
+            + "AND a.enviado_em IS NULL AND a.reservado_ate >= now()) "
+            + "ORDER BY e.id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "RETURNING id, topico, chave, payload, criado_em";
+
+    private static final String SQL_MARCAR_ENVIADOS = "UPDATE outbox_evento "
+            + "SET enviado_em = now(), reservado_ate = NULL WHERE id = ANY(?)";
+
+    private static final String SQL_LIBERAR = "UPDATE outbox_evento SET reservado_ate = NULL WHERE id = ANY(?)";
+
+    private static final String SQL_REMOVER_ENVIADOS = "DELETE FROM outbox_evento WHERE enviado_em < ?";
+
+    private static final RowMapper<OutboxEvento> EVENTO_ROW_MAPPER = (rs, linha) -> {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setId(rs.getLong("id"));
+        evento.setTopico(rs.getString("topico"));
+        evento.setChave(rs.getString("chave"));
+        evento.setPayload(rs.getString("payload"));
+        evento.setCriadoEm(rs.getObject("criado_em", OffsetDateTime.class));
+        return evento;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${order.importacao.tamanho-batch-jdbc:500}")
+    private int tamanhoBatch = 500;
+
+    public OutboxRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere os eventos na transação corrente.
+     *
+     * @param eventos Eventos a publicar
+     */
+    public void inserir(List<OutboxEvento> eventos) {
+        jdbcTemplate.batchUpdate(SQL_INSERIR, eventos, tamanhoBatch, (ps, evento) -> {
+            ps.setString(1, evento.getTopico());
+            ps.setString(2, evento.getChave());
+            ps.setString(3, evento.getPayload());
+            ps.setObject(4, evento.getCriadoEm());
+        });
+    }
+
+    /**
+     * Executa a tarefa do relay com o bloqueio do relay, se nenhuma outra
+     * instância o detiver. A tarefa recebe um repositório ligado à conexão do
+     * bloqueio, que deve ser usado para reservar e marcar os eventos, sem ocupar
+     * outra conexão do pool.
+     *
+     * @param tarefa A tarefa do relay
+     * @return O resultado da tarefa, ou vazio se outra instância detém o bloqueio
+     */
+    public <T> Optional<T> executarComoRelay(Function<OutboxRepository, T> tarefa) {
+        return jdbcTemplate.execute((ConnectionCallback<Optional<T>>) con -> {
+            if (!consultarBloqueio(con, SQL_BLOQUEAR_RELAY)) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.ofNullable(tarefa.apply(
+                        new OutboxRepository(new JdbcTemplate(new SingleConnectionDataSource(con, true)))));
+            } finally {
+                consultarBloqueio(con, SQL_DESBLOQUEAR_RELAY);
+            }
+        });
+    }
+
+    /**
+     * Reserva e retorna os eventos pendentes mais antigos que não estejam
+     * reservados. A reserva é gravada pelo próprio comando; fora de uma transação,
+     * é confirmada imediatamente e não mantém bloqueios.
+     *
+     * @param limite  Quantidade máxima de eventos
+     * @param duracao Por quanto tempo os eventos ficam reservados
+     * @return Os eventos reservados, em ordem de inserção
+     */
+    public List<OutboxEvento> reservarPendentes(int limite, Duration duracao) {
+        List<OutboxEvento> eventos = jdbcTemplate.query(SQL_RESERVAR_PENDENTES, EVENTO_ROW_MAPPER,
+                duracao.toMillis(), limite);
+        // RETURNING não garante a ordem
+        eventos.sort(Comparator.comparing(OutboxEvento::getId));
+        return eventos;
+    }
+
+    /**
+     * Marca os eventos como enviados.
+     *
+     * @param ids Os IDs dos eventos publicados
+     */
+    public void marcarEnviados(List<Long> ids) {
+        atualizar(SQL_MARCAR_ENVIADOS, ids);
+    }
+
+    /**
+     * Desfaz a reserva dos eventos não publicados, para que sejam reenviados na
+     * próxima execução do relay sem esperar o fim do prazo.
+     *
+     * @param ids Os IDs dos eventos não publicados
+     */
+    public void liberar(List<Long> ids) {
+        atualizar(SQL_LIBERAR, ids);
+    }
+
+    /**
+     * Remove os eventos enviados antes do instante informado.
+     *
+     * @param limite O instante limite de envio
+     * @return A quantidade de eventos removidos
+     */
+    public int removerEnviadosAntesDe(OffsetDateTime limite) {
+        return jdbcTemplate.update(SQL_REMOVER_ENVIADOS, limite);
+    }
+
+    // Métodos Auxiliares
+
+    private boolean consultarBloqueio(Connection con, String sql) throws SQLException {
+        try (PreparedStatement ps = con.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+            return rs.next() && rs.getBoolean(1);
+        }
+    }
+
+    private void atualizar(String sql, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            ps.setArray(1, con.createArrayOf("bigint", ids.toArray()));
+            return ps;
+        });
+    }
+}
@@ -0,0 +1,233 @@
+package com.order.repository;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.Pedido;
+import com.order.model.PedidoProduto;
+import com.order.model.Produto;
+
+/**
+ * Persistência em lote dos pedidos importados, via JDBC batch.
+ * Os IDs são reservados em blocos, com uma única ida ao banco por sequência,
+ * e as inserções são ordenadas por tabela (pedido, produto, pedido_produto)
+ * para que o driver possa agrupar os comandos.
+ * Os pedidos são inseridos com {@code ON CONFLICT (numero_pedido) DO NOTHING}:
+ * um número já gravado por outra transação é ignorado, sem erro e sem
+ * rollback do lote, em vez de violar a restrição de unicidade. Os produtos
+ * novos são inseridos depois, apenas os dos pedidos efetivamente inseridos,
+ * com {@code ON CONFLICT (nome, valor) DO NOTHING}: um produto cadastrado por
+ * outra transação desde a resolução do catálogo não é regravado, e o seu ID é
+ * lido em seguida. Os produtos devem ter nome e valor; sem eles, o índice
+ * único não detecta o conflito.
+ */
+@Repository
+public class PedidoBatchRepository {
+
+    private static final String SQL_RESERVAR_IDS = "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)";
+
+    // O RETURNING traz apenas os produtos inseridos; os já cadastrados são lidos por SQL_BUSCAR_PRODUTOS
+    private static final String SQL_INSERIR_PRODUTOS = "INSERT INTO produto (id, nome, valor) "
+            + "SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::numeric[]) "
+            + "ON CONFLICT (nome, valor) DO NOTHING RETURNING id, nome, valor";
+
+    private static final String SQL_BUSCAR_PRODUTOS = "SELECT p.id, p.nome, p.valor FROM produto p "
+            + "JOIN unnest(?::varchar[], ?::numeric[]) AS c (nome, valor) ON p.nome = c.nome AND p.valor = c.valor";
+
+    private static final Comparator<Produto> ORDEM_CHAVE_NATURAL = Comparator
+            .comparing(Produto::getNome, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+            .thenComparing(Produto::getValor, Comparator.nullsFirst(Comparator.<BigDecimal>naturalOrder()));
+
+    private static final String SQL_INSERIR_PEDIDOS = "INSERT INTO pedido "
+            + "(id, numero_pedido, valor, desconto_percentual, data_cadastro, data_atualizacao, versao) "
+            + "SELECT *, 0 FROM unnest(?::bigint[], ?::varchar[], ?::numeric[], ?::numeric[], ?::timestamp[], "
+            + "?::timestamp[]) "
+            + "ON CONFLICT (numero_pedido) DO NOTHING RETURNING id";
+
+    private static final String SQL_INSERIR_PEDIDO_PRODUTO = "INSERT INTO pedido_produto "
+            + "(id, pedido_id, produto_id, quantidade) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${order.importacao.tamanho-batch-jdbc:500}")
+    private int tamanhoBatch = 500;
+
+    public PedidoBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere os pedidos, seus produtos e as associações entre eles.
+     * Deve ser chamado dentro de uma transação; os IDs gerados são atribuídos
+     * às próprias entidades recebidas.
+     * Pedidos cujo número já existe no banco são ignorados, assim como seus itens
+     * e os produtos novos usados apenas por eles.
+     *
+     * @param pedidos Pedidos novos, com {@code pedidoProdutos} preenchidos
+     * @return Os pedidos efetivamente inseridos
+     */
+    public List<Pedido> inserirPedidos(List<Pedido> pedidos) {
+        if (pedidos.isEmpty()) {
+            return List.of();
+        }
+
+        atribuirIds("pedido_sequence", pedidos, Pedido::setId);
+
+        Set<Long> idsInseridos = new HashSet<>(inserirPedidosIgnorandoExistentes(pedidos));
+        List<Pedido> inseridos = new ArrayList<>(idsInseridos.size());
+        List<PedidoProduto> pedidoProdutos = new ArrayList<>();
+        Set<Produto> produtosNovos = new LinkedHashSet<>();
+        for (Pedido pedido : pedidos) {
+            if (idsInseridos.contains(pedido.getId())) {
+                pedido.setVersao(0L);
+                inseridos.add(pedido);
+                for (PedidoProduto pedidoProduto : pedido.getPedidoProdutos()) {
+                    pedidoProdutos.add(pedidoProduto);
+                    if (pedidoProduto.getProduto().getId() == null) {
+                        produtosNovos.add(pedidoProduto.getProduto());
+                    }
+                }
+            }
+        }
+
+        inserirProdutos(new ArrayList<>(produtosNovos));
+
+        atribuirIds("pedidoproduto_sequence", pedidoProdutos, PedidoProduto::setId);
+        jdbcTemplate.batchUpdate(SQL_INSERIR_PEDIDO_PRODUTO, pedidoProdutos, tamanhoBatch, (ps, pedidoProduto) -> {
+            ps.setLong(1, pedidoProduto.getId());
+            ps.setLong(2, pedidoProduto.getPedido().getId());
+            ps.setLong(3, pedidoProduto.getProduto().getId());
+            ps.setInt(4, pedidoProduto.getQuantidade());
+        });
+
+        return inseridos;
+    }
+
+    /**
+     * Reserva um bloco de IDs da sequência informada com uma única consulta.
+     *
+     * @param sequencia  Nome da sequência
+     * @param quantidade Quantidade de IDs a reservar
+     * @return Lista com os IDs reservados
+     */
+    public List<Long> reservarIds(String sequencia, int quantidade) {
+        if (quantidade == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.queryForList(SQL_RESERVAR_IDS, Long.class, sequencia, quantidade);
+    }
+
+    /**
+     * Insere os produtos em um único comando e atribui a cada um o ID gravado: o
+     * novo, ou, para as chaves que já estavam cadastradas, o do produto existente,
+     * lido em uma segunda consulta apenas para essas chaves. Os produtos são
+     * enviados na ordem da chave natural, para que transações concorrentes
+     * bloqueiem as mesmas chaves na mesma ordem e não entrem em deadlock.
+     */
+    private void inserirProdutos(List<Produto> produtos) {
+        if (produtos.isEmpty()) {
+            return;
+        }
+        produtos.sort(ORDEM_CHAVE_NATURAL);
+        atribuirIds("produto_sequence", produtos, Produto::setId);
+
+        int quantidade = produtos.size();
+        Long[] ids = new Long[quantidade];
+        String[] nomes = new String[quantidade];
+        BigDecimal[] valores = new BigDecimal[quantidade];
+        // Produtos ainda sem o ID gravado, pela chave natural
+        Map<ChaveNatural, Produto> semId = new HashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            Produto produto = produtos.get(i);
+            ids[i] = produto.getId();
+            nomes[i] = produto.getNome();
+            valores[i] = produto.getValor();
+            semId.put(new ChaveNatural(produto.getNome(), produto.getValor()), produto);
+        }
+
+        RowCallbackHandler atribuirId = rs -> {
+            Produto produto = semId.remove(new ChaveNatural(rs.getString("nome"), rs.getBigDecimal("valor")));
+            if (produto != null) {
+                produto.setId(rs.getLong("id"));
+            }
+        };
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_INSERIR_PRODUTOS);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("varchar", nomes));
+            ps.setArray(3, con.createArrayOf("numeric", valores));
+            return ps;
+        }, atribuirId);
+
+        if (semId.isEmpty()) {
+            return;
+        }
+        List<ChaveNatural> chavesExistentes = new ArrayList<>(semId.keySet());
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_BUSCAR_PRODUTOS);
+            ps.setArray(1, con.createArrayOf("varchar", chavesExistentes.stream().map(ChaveNatural::nome).toArray()));
+            ps.setArray(2, con.createArrayOf("numeric", chavesExistentes.stream().map(ChaveNatural::valor).toArray()));
+            return ps;
+        }, atribuirId);
+    }
+
+    /**
+     * Insere os pedidos em um único comando, com os valores em arrays, e retorna
+     * os IDs das linhas inseridas; os números já existentes não retornam.
+     */
+    private List<Long> inserirPedidosIgnorandoExistentes(List<Pedido> pedidos) {
+        int quantidade = pedidos.size();
+        Long[] ids = new Long[quantidade];
+        String[] numeros = new String[quantidade];
+        BigDecimal[] valores = new BigDecimal[quantidade];
+        BigDecimal[] descontos = new BigDecimal[quantidade];
+        Timestamp[] datas = new Timestamp[quantidade];
+        Timestamp[] datasAtualizacao = new Timestamp[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            Pedido pedido = pedidos.get(i);
+            ids[i] = pedido.getId();
+            numeros[i] = pedido.getNumeroPedido();
+            valores[i] = pedido.getValor();
+            descontos[i] = pedido.getDescontoPercentual();
+            datas[i] = pedido.getDataCadastro() != null ? Timestamp.valueOf(pedido.getDataCadastro()) : null;
+            datasAtualizacao[i] = pedido.getDataAtualizacao() != null ? Timestamp.valueOf(pedido.getDataAtualizacao())
+                    : null;
+        }
+
+        return jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(SQL_INSERIR_PEDIDOS);
+            ps.setArray(1, con.createArrayOf("bigint", ids));
+            ps.setArray(2, con.createArrayOf("varchar", numeros));
+            ps.setArray(3, con.createArrayOf("numeric", valores));
+            ps.setArray(4, con.createArrayOf("numeric", descontos));
+            ps.setArray(5, con.createArrayOf("timestamp", datas));
+            ps.setArray(6, con.createArrayOf("timestamp", datasAtualizacao));
+            return ps;
+        }, (rs, linha) -> rs.getLong(1));
+    }
+
+    private <T> void atribuirIds(String sequencia, List<T> entidades, BiConsumer<T, Long> setter) {
+        List<Long> ids = reservarIds(sequencia, entidades.size());
+        for (int i = 0; i < entidades.size(); i++) {
+            setter.accept(entidades.get(i), ids.get(i));
+        }
+    }
+
+    private record ChaveNatural(String nome, BigDecimal valor) {
+    }
+}
@@ -0,0 +1,95 @@
+package com.order.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.order.model.dto.PedidoLinhaProjecao;
+
+/**
+ * Leitura dos pedidos para exportação via JDBC, com um cursor somente para
+ * frente: o driver busca {@code tamanhoFetch} linhas por vez, e cada linha é
+ * entregue ao consumidor sem que o resultado seja materializado em memória.
+ * O PostgreSQL só usa o cursor com o auto-commit desligado, então a leitura
+ * deve ocorrer dentro de uma transação.
+ */
+@Repository
+public class PedidoExportacaoRepository {
+
+    private static final String SQL_EXPORTAR = "SELECT p.id, p.numero_pedido, p.valor, p.desconto_percentual, "
+            + "p.data_cadastro, p.versao, p.data_atualizacao, pp.id AS pedido_produto_id, pr.id AS produto_id, pr.nome AS produto_nome, "
+            + "pr.valor AS produto_valor, pp.quantidade "
+            + "FROM pedido p LEFT JOIN pedido_produto pp ON pp.pedido_id = p.id "
+            + "LEFT JOIN produto pr ON pr.id = pp.produto_id";
+
+    private static final String SQL_ORDENACAO = " ORDER BY p.id, pp.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${order.exportacao.tamanho-fetch:1000}")
+    private int tamanhoFetch = 1000;
+
+    public PedidoExportacaoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Percorre os pedidos com seus itens, ordenados por pedido e item, de modo
+     * que as linhas de um mesmo pedido chegam consecutivas.
+     *
+     * @param desde      Início do período de cadastro, inclusivo; opcional
+     * @param ate        Fim do período de cadastro, exclusivo; opcional
+     * @param consumidor Recebe cada linha (pedido e item), na ordem da consulta
+     */
+    public void exportar(LocalDateTime desde, LocalDateTime ate, Consumer<PedidoLinhaProjecao> consumidor) {
+        StringBuilder sql = new StringBuilder(SQL_EXPORTAR);
+        List<LocalDateTime> parametros = new ArrayList<>(2);
+        if (desde != null) {
+            sql.append(" WHERE p.data_cadastro >= ?");
+            parametros.add(desde);
+        }
+        if (ate != null) {
+            sql.append(parametros.isEmpty() ? " WHERE" : " AND").append(" p.data_cadastro < ?");
+            parametros.add(ate);
+        }
+        sql.append(SQL_ORDENACAO);
+
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(), ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(tamanhoFetch);
+            for (int i = 0; i < parametros.size(); i++) {
+                ps.setTimestamp(i + 1, Timestamp.valueOf(parametros.get(i)));
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> consumidor.accept(mapearLinha(rs)));
+    }
+
+    private PedidoLinhaProjecao mapearLinha(ResultSet rs) throws SQLException {
+        Timestamp dataCadastro = rs.getTimestamp("data_cadastro");
+        Timestamp dataAtualizacao = rs.getTimestamp("data_atualizacao");
+        return new PedidoLinhaProjecao(
+                rs.getLong("id"),
+                rs.getString("numero_pedido"),
+                rs.getBigDecimal("valor"),
+                rs.getBigDecimal("desconto_percentual"),
+                dataCadastro != null ? dataCadastro.toLocalDateTime() : null,
+                rs.getLong("versao"),
+                dataAtualizacao != null ? dataAtualizacao.toLocalDateTime() : null,
+                rs.getObject("pedido_produto_id", Long.class),
+                rs.getObject("produto_id", Long.class),
+                rs.getString("produto_nome"),
+                rs.getBigDecimal("produto_valor"),
+                rs.getObject("quantidade", Integer.class));
+    }
+}
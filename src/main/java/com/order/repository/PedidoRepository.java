@@ -1,7 +1,10 @@
 package com.order.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -10,15 +13,95 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
 import com.order.model.Pedido;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.model.dto.VersaoPedido;
 
 public interface PedidoRepository extends JpaRepository<Pedido, Long> {
 
+    String PROJECAO_LINHAS = "SELECT new com.order.model.dto.PedidoLinhaProjecao("
+            + "p.id, p.numeroPedido, p.valor, p.descontoPercentual, p.dataCadastro, p.versao, p.dataAtualizacao, "
+            + "pp.id, pr.id, pr.nome, pr.valor, pp.quantidade) "
+            + "FROM Pedido p LEFT JOIN p.pedidoProdutos pp LEFT JOIN pp.produto pr ";
+
+    String PROJECAO_VERSAO = "SELECT new com.order.model.dto.VersaoPedido("
+            + "p.id, p.versao, p.dataCadastro, p.dataAtualizacao) FROM Pedido p ";
+
+    /**
+     * Busca uma página de IDs de pedidos, ordenados pelo ID.
+     * Primeira fase da paginação: a página é resolvida no banco sem carregar os produtos.
+     * @return Página de IDs de pedidos.
+     */
+    @Query(value = "SELECT p.id FROM Pedido p ORDER BY p.id", countQuery = "SELECT COUNT(p) FROM Pedido p")
+    Page<Long> findPedidoIds(Pageable pageable);
+
+    /**
+     * Busca os IDs de pedidos posteriores ao ID informado, ordenados pelo ID (paginação keyset).
+     * O custo independe da profundidade da página, pois a consulta parte do índice da chave primária.
+     * @param aposId ID do último pedido da página anterior.
+     * @return Lista de IDs de pedidos, limitada pelo tamanho do pageable.
+     */
+    @Query("SELECT p.id FROM Pedido p WHERE p.id > :aposId ORDER BY p.id")
+    List<Long> findPedidoIdsApos(@Param("aposId") Long aposId, Pageable pageable);
+
+    /**
+     * Busca os IDs de pedidos cadastrados após a posição informada, ordenados por
+     * data de cadastro e ID (paginação keyset). A consulta parte da posição no
+     * índice (data_cadastro, id); pedidos com a mesma data são desempatados pelo ID.
+     * @param data Data de cadastro do último pedido da página anterior, ou o início do período.
+     * @param aposId ID do último pedido da página anterior, ou 0 na primeira página.
+     * @return Lista de IDs de pedidos, limitada pelo tamanho do pageable.
+     */
+    @Query("SELECT p.id FROM Pedido p WHERE p.dataCadastro >= :data "
+            + "AND (p.dataCadastro > :data OR p.id > :aposId) ORDER BY p.dataCadastro, p.id")
+    List<Long> findPedidoIdsCadastradosApos(@Param("data") LocalDateTime data, @Param("aposId") Long aposId,
+            Pageable pageable);
+
+    /**
+     * Igual a {@link #findPedidoIdsCadastradosApos}, limitado aos pedidos
+     * cadastrados antes do fim do período.
+     * @param data Data de cadastro do último pedido da página anterior, ou o início do período.
+     * @param aposId ID do último pedido da página anterior, ou 0 na primeira página.
+     * @param ate Fim do período, exclusivo.
+     * @return Lista de IDs de pedidos, limitada pelo tamanho do pageable.
+     */
+    @Query("SELECT p.id FROM Pedido p WHERE p.dataCadastro >= :data AND p.dataCadastro < :ate "
+            + "AND (p.dataCadastro > :data OR p.id > :aposId) ORDER BY p.dataCadastro, p.id")
+    List<Long> findPedidoIdsCadastradosAposAte(@Param("data") LocalDateTime data, @Param("aposId") Long aposId,
+            @Param("ate") LocalDateTime ate, Pageable pageable);
+
+    /**
+     * Busca os pedidos com os IDs informados em uma única consulta, já projetados com
+     * seus itens e os dados de cada produto (nome e valor), sem carregar entidades.
+     * As linhas de um mesmo pedido retornam consecutivas.
+     * @param ids IDs dos pedidos.
+     * @return Lista de linhas (pedido e item), ordenada por pedido.
+     */
+    @Query(PROJECAO_LINHAS + "WHERE p.id IN :ids ORDER BY p.id, pp.id")
+    List<PedidoLinhaProjecao> findLinhasByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Busca apenas a versão de um pedido, sem os itens, para as requisições condicionais.
+     * @param id ID do pedido.
+     * @return A versão do pedido, caso exista.
+     */
+    @Query(PROJECAO_VERSAO + "WHERE p.id = :id")
+    Optional<VersaoPedido> findVersaoById(@Param("id") Long id);
+
     /**
-     * Busca todos os pedidos com seus produtos associados, usando `LEFT JOIN FETCH` para evitar problemas de `LazyInitializationException`.
-     * @return Lista de pedidos com produtos carregados.
+     * Busca apenas a versão de um pedido pelo número, sem os itens.
+     * @param numeroPedido Número do pedido.
+     * @return A versão do pedido, caso exista.
      */
-    @Query("SELECT DISTINCT p FROM Pedido p LEFT JOIN FETCH p.pedidoProdutos")
-    Page<Pedido> findAllPedidosComProdutos(Pageable pageable);
+    @Query(PROJECAO_VERSAO + "WHERE p.numeroPedido = :numeroPedido")
+    Optional<VersaoPedido> findVersaoByNumeroPedido(@Param("numeroPedido") String numeroPedido);
+
+    /**
+     * Busca as versões dos pedidos com os IDs informados, para a ETag de uma página.
+     * @param ids IDs dos pedidos.
+     * @return As versões dos pedidos encontrados, sem ordem definida.
+     */
+    @Query(PROJECAO_VERSAO + "WHERE p.id IN :ids")
+    List<VersaoPedido> findVersoesByIdIn(@Param("ids") Collection<Long> ids);
 
     /**
      * Verifica se existe um pedido com o número especificado.
@@ -30,6 +113,16 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN TRUE ELSE FALSE END FROM Pedido p WHERE p.numeroPedido = :numeroPedido")
     boolean existsByNumeroPedido(@Param("numeroPedido") String numeroPedido);
 
+    /**
+     * Retorna, dentre os números informados, aqueles que já possuem pedido
+     * cadastrado. Permite deduplicar um lote inteiro com uma única consulta.
+     * 
+     * @param numerosPedido Números de pedido a serem verificados.
+     * @return Conjunto com os números que já existem no banco de dados.
+     */
+    @Query("SELECT p.numeroPedido FROM Pedido p WHERE p.numeroPedido IN :numerosPedido")
+    Set<String> findNumerosPedidoExistentes(@Param("numerosPedido") Collection<String> numerosPedido);
+
     /**
      * Busca um pedido com base no número do pedido.
      * 
@@ -38,6 +131,16 @@ public interface PedidoRepository extends JpaRepository<Pedido, Long> {
      */
     Optional<Pedido> findByNumeroPedido(@Param("numeroPedido") String numeroPedido);
 
+    /**
+     * Busca um pedido pelo número em uma única consulta, já projetado com seus itens
+     * e os dados de cada produto.
+     * 
+     * @param numeroPedido Número do pedido a ser buscado.
+     * @return Lista de linhas (pedido e item); vazia caso o pedido não exista.
+     */
+    @Query(PROJECAO_LINHAS + "WHERE p.numeroPedido = :numeroPedido ORDER BY pp.id")
+    List<PedidoLinhaProjecao> findLinhasByNumeroPedido(@Param("numeroPedido") String numeroPedido);
+
     /**
      * Consulta todos os pedidos com base em um intervalo de IDs.
      * Exemplo de consulta adicional útil para otimização.
@@ -1,8 +1,20 @@
 package com.order.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.order.model.Produto;
 
 public interface ProdutoRepository extends JpaRepository<Produto, Long> {
+
+    /**
+     * Busca os produtos cadastrados com um dos nomes informados, ordenados pelo ID.
+     * Usada para resolver a identidade dos produtos pela chave natural.
+     * 
+     * @param nomes Nomes dos produtos.
+     * @return Lista de produtos com os nomes informados.
+     */
+    List<Produto> findByNomeInOrderById(Collection<String> nomes);
 }
\ No newline at end of file
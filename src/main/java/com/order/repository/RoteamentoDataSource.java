@@ -0,0 +1,208 @@
+package com.order.repository;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Encaminha as conexões entre o pool da primária e os pools das réplicas.
+ * Transações somente leitura ({@code @Transactional(readOnly = true)}) vão para
+ * uma réplica, em rodízio entre as réplicas cujo atraso medido não passa do
+ * limite; as demais conexões, com ou sem transação, vão para a primária.
+ * Deve ser usado atrás de um {@code LazyConnectionDataSourceProxy}, para que a
+ * conexão só seja obtida depois que a transação estiver marcada como somente leitura.
+ *
+ * Leitura das próprias escritas: depois do commit de uma transação de escrita, as
+ * leituras da mesma thread só vão para uma réplica que, na última medição, já
+ * tinha aplicado as escritas até o instante do commit; enquanto nenhuma estiver
+ * em dia, vão para a primária. A garantia vale apenas dentro da thread, até
+ * {@link #limparEscrita()}, chamado no fim de cada requisição HTTP e de cada
+ * tarefa dos executores de importação: a requisição seguinte do mesmo cliente,
+ * que pode cair em outra thread ou instância, não vê a escrita anterior e pode
+ * ler de uma réplica que ainda não a aplicou.
+ */
+public class RoteamentoDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    public static final String PRIMARIA = "primaria";
+
+    private static final long LAG_DESCONHECIDO = -1;
+
+    private final DataSource primaria;
+
+    private final List<Replica> replicas;
+
+    private final long lagMaximoNanos;
+
+    private final AtomicInteger proximaReplica = new AtomicInteger();
+
+    private final ThreadLocal<Long> ultimaEscrita = new ThreadLocal<>();
+
+    /**
+     * Uma réplica e o último atraso medido pelo monitor. Até a primeira medição,
+     * ou após uma falha, o atraso é desconhecido e a réplica não recebe leituras.
+     */
+    public static final class Replica {
+
+        private final String nome;
+
+        private final DataSource dataSource;
+
+        private volatile long lagNanos = LAG_DESCONHECIDO;
+
+        // Instante (System.nanoTime) até o qual a réplica tinha aplicado as escritas da primária
+        private volatile long aplicadoAteNanos;
+
+        public Replica(String nome, DataSource dataSource) {
+            this.nome = nome;
+            this.dataSource = dataSource;
+        }
+
+        public String nome() {
+            return nome;
+        }
+
+        public DataSource dataSource() {
+            return dataSource;
+        }
+
+        /**
+         * @return O último atraso medido, ou {@code null} se desconhecido
+         */
+        public Duration lag() {
+            long lag = lagNanos;
+            return lag == LAG_DESCONHECIDO ? null : Duration.ofNanos(lag);
+        }
+
+        /**
+         * Registra o atraso medido agora.
+         *
+         * @param lag O atraso da réplica em relação à primária
+         */
+        public void registrarLag(Duration lag) {
+            registrarLag(lag, System.nanoTime());
+        }
+
+        /**
+         * Registra o atraso medido em um instante anterior.
+         *
+         * @param lag          O atraso da réplica em relação à primária
+         * @param medidoEmNanos O instante (System.nanoTime) em que o atraso foi medido
+         */
+        public void registrarLag(Duration lag, long medidoEmNanos) {
+            long lagMedido = Math.max(lag.toNanos(), 0);
+            this.aplicadoAteNanos = medidoEmNanos - lagMedido;
+            this.lagNanos = lagMedido;
+        }
+
+        public void marcarIndisponivel() {
+            this.lagNanos = LAG_DESCONHECIDO;
+        }
+    }
+
+    public RoteamentoDataSource(DataSource primaria, List<Replica> replicas, Duration lagMaximo) {
+        this.primaria = primaria;
+        this.replicas = List.copyOf(replicas);
+        this.lagMaximoNanos = lagMaximo.toNanos();
+
+        Map<Object, Object> destinos = new HashMap<>();
+        destinos.put(PRIMARIA, primaria);
+        for (Replica replica : this.replicas) {
+            destinos.put(replica.nome(), replica.dataSource());
+        }
+        setTargetDataSources(destinos);
+        setDefaultTargetDataSource(primaria);
+        afterPropertiesSet();
+    }
+
+    public DataSource getPrimaria() {
+        return primaria;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            registrarEscrita();
+            return PRIMARIA;
+        }
+        Replica replica = escolherReplica();
+        return replica != null ? replica.nome() : PRIMARIA;
+    }
+
+    /**
+     * Esquece a última escrita da thread corrente. Deve ser chamado ao fim da
+     * unidade de trabalho (requisição ou tarefa), antes que a thread volte ao pool.
+     */
+    public void limparEscrita() {
+        ultimaEscrita.remove();
+    }
+
+    /**
+     * Fecha os pools da primária e das réplicas.
+     */
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            fechar(replica.dataSource());
+        }
+        fechar(primaria);
+    }
+
+    // Métodos Auxiliares
+
+    private void fechar(DataSource dataSource) throws Exception {
+        if (dataSource instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Escolhe, em rodízio, uma réplica com atraso dentro do limite que já tenha
+     * aplicado a última escrita da thread.
+     */
+    private Replica escolherReplica() {
+        if (replicas.isEmpty()) {
+            return null;
+        }
+        Long escrita = ultimaEscrita.get();
+
+        int inicio = Math.floorMod(proximaReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((inicio + i) % replicas.size());
+            long lag = replica.lagNanos;
+            if (lag != LAG_DESCONHECIDO && lag <= lagMaximoNanos
+                    && (escrita == null || replica.aplicadoAteNanos - escrita > 0)) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Registra o instante do commit da transação de escrita corrente, para a
+     * leitura das próprias escritas.
+     */
+    private void registrarEscrita() {
+        if (replicas.isEmpty() || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ultimaEscrita.set(System.nanoTime());
+            }
+        });
+    }
+}
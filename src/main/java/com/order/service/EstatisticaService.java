@@ -0,0 +1,154 @@
+package com.order.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.order.model.Pedido;
+import com.order.model.PedidoEstatisticaHora;
+import com.order.model.dto.EstatisticaPedidosDTO;
+import com.order.model.dto.Granularidade;
+import com.order.repository.EstatisticaRepository;
+
+/**
+ * Estatísticas de pedidos (quantidade, receita e ticket médio) por período.
+ * Os totais são mantidos por hora de cadastro em uma tabela de rollup,
+ * atualizada na mesma transação de cada lote importado; na importação
+ * paralela, os totais dos lotes são somados em memória e gravados uma única
+ * vez ao final, para que os workers não disputem a linha da hora corrente.
+ * As consultas agregam
+ * apenas as horas do intervalo, sem ler os pedidos. A carga inicial a partir
+ * dos pedidos já cadastrados é feita pela migração V8.
+ */
+@Service
+public class EstatisticaService {
+
+    private final EstatisticaRepository estatisticaRepository;
+
+    @Value("${order.estatisticas.maximo-periodos:10000}")
+    private long maximoPeriodos = 10_000;
+
+    public EstatisticaService(EstatisticaRepository estatisticaRepository) {
+        this.estatisticaRepository = estatisticaRepository;
+    }
+
+    /**
+     * Soma os pedidos gravados aos totais das suas horas de cadastro. Deve ser
+     * chamado na transação que grava os pedidos, para que um rollback desfaça
+     * também os totais.
+     *
+     * @param pedidos Os pedidos efetivamente gravados
+     */
+    public void registrarPedidosImportados(List<Pedido> pedidos) {
+        Map<LocalDateTime, PedidoEstatisticaHora> totais = new TreeMap<>();
+        somar(totais, pedidos);
+        registrarTotais(totais);
+    }
+
+    /**
+     * Soma os pedidos aos totais em memória, por hora de cadastro, sem gravar.
+     *
+     * @param totais  Os totais por hora, alterados no lugar
+     * @param pedidos Os pedidos efetivamente gravados
+     */
+    public void somar(Map<LocalDateTime, PedidoEstatisticaHora> totais, List<Pedido> pedidos) {
+        for (Pedido pedido : pedidos) {
+            if (pedido.getDataCadastro() == null) {
+                continue;
+            }
+            PedidoEstatisticaHora total = totais.computeIfAbsent(pedido.getDataCadastro().truncatedTo(ChronoUnit.HOURS),
+                    this::criarTotal);
+            total.setQuantidade(total.getQuantidade() + 1);
+            if (pedido.getValor() != null) {
+                total.setValorTotal(total.getValorTotal().add(pedido.getValor()));
+            }
+        }
+    }
+
+    /**
+     * Soma totais por hora já calculados a outros totais em memória.
+     *
+     * @param destino Os totais por hora, alterados no lugar
+     * @param origem  Os totais a serem somados
+     */
+    public void somarTotais(Map<LocalDateTime, PedidoEstatisticaHora> destino,
+            Map<LocalDateTime, PedidoEstatisticaHora> origem) {
+        for (PedidoEstatisticaHora parcial : origem.values()) {
+            PedidoEstatisticaHora total = destino.computeIfAbsent(parcial.getHora(), this::criarTotal);
+            total.setQuantidade(total.getQuantidade() + parcial.getQuantidade());
+            total.setValorTotal(total.getValorTotal().add(parcial.getValorTotal()));
+        }
+    }
+
+    /**
+     * Soma os totais às horas da tabela de rollup em um único comando, com as
+     * horas em ordem cronológica para que gravações concorrentes bloqueiem as
+     * linhas sempre na mesma ordem.
+     *
+     * @param totais Os totais por hora
+     */
+    public void registrarTotais(Map<LocalDateTime, PedidoEstatisticaHora> totais) {
+        if (totais.isEmpty()) {
+            return;
+        }
+        List<PedidoEstatisticaHora> ordenados = new ArrayList<>(totais.values());
+        ordenados.sort(Comparator.comparing(PedidoEstatisticaHora::getHora));
+        estatisticaRepository.acumular(ordenados);
+    }
+
+    /**
+     * Retorna os totais de pedidos por período no intervalo informado. Cada hora
+     * entra no período em que começa; períodos sem pedidos não são retornados.
+     *
+     * @param de            Início do intervalo, inclusivo
+     * @param ate           Fim do intervalo, exclusivo
+     * @param granularidade O tamanho dos períodos
+     * @return Os totais por período, em ordem cronológica
+     * @throws IllegalArgumentException Caso o intervalo seja inválido ou tenha
+     *                                  períodos demais
+     */
+    @Transactional(readOnly = true)
+    public List<EstatisticaPedidosDTO> consultar(LocalDateTime de, LocalDateTime ate, Granularidade granularidade) {
+        if (!de.isBefore(ate)) {
+            throw new IllegalArgumentException("O início do intervalo deve ser anterior ao fim.");
+        }
+        if (granularidade.unidade().between(de, ate) > maximoPeriodos) {
+            throw new IllegalArgumentException("O intervalo excede " + maximoPeriodos + " períodos; "
+                    + "use uma granularidade maior.");
+        }
+
+        List<PedidoEstatisticaHora> totais = estatisticaRepository.consultar(de, ate, granularidade);
+        List<EstatisticaPedidosDTO> estatisticas = new ArrayList<>(totais.size());
+        for (PedidoEstatisticaHora total : totais) {
+            estatisticas.add(new EstatisticaPedidosDTO(total.getHora(), total.getQuantidade(), total.getValorTotal(),
+                    calcularTicketMedio(total)));
+        }
+        return estatisticas;
+    }
+
+    // Métodos Auxiliares
+
+    private PedidoEstatisticaHora criarTotal(LocalDateTime hora) {
+        PedidoEstatisticaHora total = new PedidoEstatisticaHora();
+        total.setHora(hora);
+        total.setValorTotal(BigDecimal.ZERO);
+        return total;
+    }
+
+    private BigDecimal calcularTicketMedio(PedidoEstatisticaHora total) {
+        if (total.getQuantidade() == 0 || total.getValorTotal() == null) {
+            return BigDecimal.ZERO.setScale(2);
+        }
+        return total.getValorTotal().divide(BigDecimal.valueOf(total.getQuantidade()), 2, RoundingMode.HALF_EVEN);
+    }
+}
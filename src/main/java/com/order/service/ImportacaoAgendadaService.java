@@ -0,0 +1,190 @@
+package com.order.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.order.AsyncConfig;
+import com.order.ImportacaoAgendadaProperties;
+import com.order.ImportacaoAgendadaProperties.Fonte;
+import com.order.model.ImportacaoJob;
+import com.order.model.PedidoExternoA;
+import com.order.model.dto.EstadoFonteImportacao;
+import com.order.repository.ImportacaoFonteRepository;
+import com.order.repository.ImportacaoFonteRepository.FonteBloqueada;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Importa periodicamente as fontes configuradas em
+ * {@link ImportacaoAgendadaProperties}, cada uma com seu intervalo e seu limite
+ * de páginas em paralelo.
+ * A importação é incremental: a fonte recebe a posição salva da última
+ * importação concluída, que só avança quando todos os lotes foram gravados.
+ * Cada página passa por um circuit breaker e por retentativas com backoff
+ * exponencial e espera aleatória (Resilience4j), configurados por fonte em
+ * {@code resilience4j.circuitbreaker} e {@code resilience4j.retry}.
+ * Entre as instâncias, um advisory lock do PostgreSQL garante que cada fonte é
+ * importada por uma única instância, e a próxima execução fica salva no banco.
+ * Cada execução é registrada como job no {@link ImportacaoService}, consultável
+ * pelo mesmo endpoint de status das importações manuais.
+ */
+@Service
+public class ImportacaoAgendadaService {
+
+    private final ImportacaoFonteRepository importacaoFonteRepository;
+
+    private final ImportacaoService importacaoService;
+
+    private final PedidoExternoAService pedidoExternoAService;
+
+    private final PedidoExternoAClient pedidoExternoAClient;
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private final RetryRegistry retryRegistry;
+
+    private final AsyncTaskExecutor importacaoExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    private final List<Fonte> fontes;
+
+    private final Set<String> emExecucao = ConcurrentHashMap.newKeySet();
+
+    // Próxima execução conhecida de cada fonte, para não consultar o banco a cada verificação
+    private final Map<String, Instant> proximasExecucoes = new ConcurrentHashMap<>();
+
+    public ImportacaoAgendadaService(ImportacaoFonteRepository importacaoFonteRepository,
+            ImportacaoService importacaoService, PedidoExternoAService pedidoExternoAService,
+            PedidoExternoAClient pedidoExternoAClient,
+            CircuitBreakerRegistry circuitBreakerRegistry, RetryRegistry retryRegistry,
+            @Qualifier(AsyncConfig.IMPORTACAO_EXECUTOR) AsyncTaskExecutor importacaoExecutor,
+            MeterRegistry meterRegistry, ImportacaoAgendadaProperties properties) {
+        this.importacaoFonteRepository = importacaoFonteRepository;
+        this.importacaoService = importacaoService;
+        this.pedidoExternoAService = pedidoExternoAService;
+        this.pedidoExternoAClient = pedidoExternoAClient;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryRegistry = retryRegistry;
+        this.importacaoExecutor = importacaoExecutor;
+        this.meterRegistry = meterRegistry;
+        this.fontes = properties.fontes();
+    }
+
+    /**
+     * Enfileira no executor de importação as fontes cuja próxima execução já
+     * chegou. Uma fonte ainda em execução nesta instância não é enfileirada de
+     * novo; com o executor cheio, a fonte fica para a próxima verificação.
+     */
+    @Scheduled(fixedDelayString = "${order.importacao.agendada.intervalo-verificacao-ms:5000}")
+    public void verificar() {
+        Instant agora = Instant.now();
+        for (Fonte fonte : fontes) {
+            Instant proxima = proximasExecucoes.get(fonte.nome());
+            if ((proxima != null && agora.isBefore(proxima)) || !emExecucao.add(fonte.nome())) {
+                continue;
+            }
+            try {
+                importacaoExecutor.execute(() -> executar(fonte));
+            } catch (TaskRejectedException e) {
+                emExecucao.remove(fonte.nome());
+            }
+        }
+    }
+
+    /**
+     * Importa a fonte, se esta instância obtiver o bloqueio e a próxima execução
+     * salva no banco já tiver chegado.
+     *
+     * @param fonte A fonte a importar
+     */
+    void executar(Fonte fonte) {
+        try {
+            boolean executou = importacaoFonteRepository.executarComBloqueio(fonte.nome(),
+                    fonteBloqueada -> importarSeDevida(fonte, fonteBloqueada));
+            if (!executou) {
+                // Outra instância está importando a fonte
+                proximasExecucoes.put(fonte.nome(), Instant.now().plus(fonte.intervalo()));
+            }
+        } catch (RuntimeException e) {
+            proximasExecucoes.put(fonte.nome(), Instant.now().plus(fonte.intervalo()));
+        } finally {
+            emExecucao.remove(fonte.nome());
+        }
+    }
+
+    // Métodos Auxiliares
+
+    private void importarSeDevida(Fonte fonte, FonteBloqueada fonteBloqueada) {
+        EstadoFonteImportacao estado = fonteBloqueada.estado();
+        if (!estado.devida()) {
+            proximasExecucoes.put(fonte.nome(), estado.proximaExecucao());
+            return;
+        }
+
+        Instant inicio = Instant.now();
+        ImportacaoJob job = new ImportacaoJob(ImportacaoJob.Modo.AGENDADO);
+        importacaoService.registrar(job);
+        job.iniciar();
+        String resultado = "sucesso";
+        try {
+            pedidoExternoAService.importarEmLotes(buscarPedidos(fonte, estado.posicao()), job).block();
+            if (job.getFalhas().get() > 0) {
+                throw new IllegalStateException(job.getFalhas().get() + " pedidos não foram gravados: " + job.getErro());
+            }
+            job.concluir();
+            fonteBloqueada.registrarSucesso(inicio.minus(fonte.sobreposicao()).toString(), fonte.intervalo());
+        } catch (RuntimeException e) {
+            resultado = "falha";
+            job.falhar(e);
+            fonteBloqueada.registrarFalha(String.valueOf(e.getMessage()), fonte.intervalo());
+        }
+        proximasExecucoes.put(fonte.nome(), Instant.now().plus(fonte.intervalo()));
+
+        Timer.builder("order.importacao.agendada")
+                .description("Duração das importações agendadas por fonte")
+                .tag("fonte", fonte.nome())
+                .tag("resultado", resultado)
+                .register(meterRegistry)
+                .record(Duration.between(inicio, Instant.now()));
+        meterRegistry.counter("order.importacao.agendada.pedidos", "fonte", fonte.nome())
+                .increment(job.getInseridos().get());
+    }
+
+    /**
+     * Monta o Flux com os pedidos de todas as páginas da fonte a partir da
+     * posição salva. O circuit breaker fica dentro das retentativas, de modo que
+     * cada tentativa conta para ele e, com o circuito aberto, a importação falha
+     * sem chamar a fonte.
+     */
+    private Flux<PedidoExternoA> buscarPedidos(Fonte fonte, String posicao) {
+        String instancia = "importacao-" + fonte.nome();
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(instancia);
+        Retry retry = retryRegistry.retry(instancia);
+        Map<String, String> parametros = posicao == null ? Map.of() : Map.of(fonte.parametroPosicao(), posicao);
+
+        return Flux.range(0, fonte.paginas())
+                .flatMap(pagina -> pedidoExternoAClient
+                        .streamPagina(fonte.url(), fonte.paginas() > 1 ? pagina : null, parametros)
+                        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                        .transformDeferred(RetryOperator.of(retry)), fonte.concorrencia());
+    }
+}
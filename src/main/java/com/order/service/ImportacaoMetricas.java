@@ -0,0 +1,117 @@
+package com.order.service;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.order.model.dto.ResultadoImportacao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas da importação: um timer por etapa ({@code order.importacao.etapa},
+ * com histograma para percentis) e contadores de pedidos recebidos, duplicados
+ * e inseridos ({@code order.importacao.pedidos}). As tags têm valores fixos,
+ * para manter a cardinalidade baixa.
+ * A etapa OUTBOX mede a gravação dos eventos no outbox; a publicação no Kafka
+ * é medida pelo relay ({@code order.outbox.publicacao}).
+ */
+@Component
+public class ImportacaoMetricas {
+
+    public enum Etapa {
+        FETCH, PARSE, DEDUP, PERSIST, OUTBOX
+    }
+
+    private final Map<Etapa, Timer> etapas = new EnumMap<>(Etapa.class);
+
+    private final Counter recebidos;
+
+    private final Counter duplicados;
+
+    private final Counter inseridos;
+
+    public ImportacaoMetricas(MeterRegistry meterRegistry) {
+        for (Etapa etapa : Etapa.values()) {
+            etapas.put(etapa, Timer.builder("order.importacao.etapa")
+                    .description("Duração de cada etapa da importação de pedidos")
+                    .tag("etapa", etapa.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        this.recebidos = contador(meterRegistry, "recebidos");
+        this.duplicados = contador(meterRegistry, "duplicados");
+        this.inseridos = contador(meterRegistry, "inseridos");
+    }
+
+    /**
+     * Executa e mede uma etapa da importação.
+     *
+     * @param etapa    A etapa executada
+     * @param operacao A operação da etapa
+     * @return O resultado da operação
+     */
+    public <T> T medir(Etapa etapa, Supplier<T> operacao) {
+        return etapas.get(etapa).record(operacao);
+    }
+
+    public void medir(Etapa etapa, Runnable operacao) {
+        etapas.get(etapa).record(operacao);
+    }
+
+    /**
+     * Registra a duração de uma etapa medida pelo chamador.
+     *
+     * @param etapa     A etapa executada
+     * @param duracaoNs A duração, em nanossegundos
+     */
+    public void registrar(Etapa etapa, long duracaoNs) {
+        etapas.get(etapa).record(duracaoNs, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Soma aos contadores o resultado de um lote.
+     *
+     * @param resultado O resultado do lote
+     */
+    public void registrar(ResultadoImportacao resultado) {
+        recebidos.increment(resultado.recebidos());
+        duplicados.increment(resultado.duplicados());
+        inseridos.increment(resultado.inseridos());
+    }
+
+    /**
+     * Soma aos contadores o resultado de um lote após o commit da transação
+     * corrente; um lote desfeito não é contado. Sem transação, soma imediatamente.
+     *
+     * @param resultado O resultado do lote
+     */
+    public void registrarAposCommit(ResultadoImportacao resultado) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registrar(resultado);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                registrar(resultado);
+            }
+        });
+    }
+
+    // Métodos Auxiliares
+
+    private static Counter contador(MeterRegistry meterRegistry, String resultado) {
+        return Counter.builder("order.importacao.pedidos")
+                .description("Pedidos processados pela importação")
+                .tag("resultado", resultado)
+                .register(meterRegistry);
+    }
+}
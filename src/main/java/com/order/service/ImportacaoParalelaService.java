@@ -0,0 +1,125 @@
+package com.order.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.order.AsyncConfig;
+import com.order.model.ImportacaoJob;
+import com.order.model.PedidoEstatisticaHora;
+import com.order.model.PedidoExternoA;
+import com.order.model.dto.ResultadoImportacao;
+
+/**
+ * Processa uma importação em paralelo. Os pedidos são particionados pelo hash
+ * do número do pedido entre {@code order.importacao.workers} workers; cada
+ * worker grava a sua partição em lotes, cada lote em sua própria transação e
+ * conexão. Como um número de pedido sempre cai na mesma partição, dois workers
+ * nunca disputam o mesmo número, e a restrição de unicidade não gera esperas
+ * entre eles. Os totais por hora das estatísticas não são gravados nos lotes:
+ * cada worker soma em memória os totais dos lotes confirmados, e a soma de
+ * todas as partições é gravada uma única vez ao final, em um único comando,
+ * para que os workers não se enfileirem na linha da hora corrente.
+ */
+@Service
+public class ImportacaoParalelaService {
+
+    private final PedidoService pedidoService;
+
+    private final EstatisticaService estatisticaService;
+
+    private final Executor workersExecutor;
+
+    private final int workers;
+
+    private final int tamanhoLote;
+
+    public ImportacaoParalelaService(PedidoService pedidoService, EstatisticaService estatisticaService,
+            @Qualifier(AsyncConfig.IMPORTACAO_WORKERS_EXECUTOR) Executor workersExecutor,
+            @Value("${order.importacao.workers:4}") int workers,
+            @Value("${order.importacao.tamanho-lote:1000}") int tamanhoLote) {
+        this.pedidoService = pedidoService;
+        this.estatisticaService = estatisticaService;
+        this.workersExecutor = workersExecutor;
+        this.workers = workers;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    /**
+     * Importa os pedidos em paralelo e aguarda todas as partições.
+     * O progresso de cada lote é registrado no job à medida que é gravado; os
+     * totais por hora dos lotes confirmados são gravados após a última partição.
+     *
+     * @param pedidosExternos Os pedidos recebidos
+     * @param job             O job que acompanha a importação
+     * @return A soma dos resultados dos lotes gravados com sucesso
+     */
+    public ResultadoImportacao importar(List<PedidoExternoA> pedidosExternos, ImportacaoJob job) {
+        List<CompletableFuture<ResultadoImportacao>> execucoes = new ArrayList<>(workers);
+        List<Map<LocalDateTime, PedidoEstatisticaHora>> totaisParticoes = new ArrayList<>(workers);
+        for (List<PedidoExternoA> particao : particionar(pedidosExternos)) {
+            if (!particao.isEmpty()) {
+                Map<LocalDateTime, PedidoEstatisticaHora> totaisHora = new TreeMap<>();
+                totaisParticoes.add(totaisHora);
+                execucoes.add(CompletableFuture.supplyAsync(() -> processarParticao(particao, totaisHora, job),
+                        workersExecutor));
+            }
+        }
+
+        ResultadoImportacao total = ResultadoImportacao.VAZIO;
+        for (CompletableFuture<ResultadoImportacao> execucao : execucoes) {
+            total = total.somar(execucao.join());
+        }
+
+        Map<LocalDateTime, PedidoEstatisticaHora> totaisHora = new TreeMap<>();
+        totaisParticoes.forEach(totaisParticao -> estatisticaService.somarTotais(totaisHora, totaisParticao));
+        estatisticaService.registrarTotais(totaisHora);
+        return total;
+    }
+
+    // Métodos Auxiliares
+
+    private List<List<PedidoExternoA>> particionar(List<PedidoExternoA> pedidosExternos) {
+        List<List<PedidoExternoA>> particoes = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            particoes.add(new ArrayList<>(pedidosExternos.size() / workers + 1));
+        }
+        for (PedidoExternoA pedidoExterno : pedidosExternos) {
+            String numeroPedido = pedidoExterno.getNumeroPedido();
+            int particao = numeroPedido != null ? Math.floorMod(numeroPedido.hashCode(), workers) : 0;
+            particoes.get(particao).add(pedidoExterno);
+        }
+        return particoes;
+    }
+
+    /**
+     * Grava uma partição em lotes. A falha de um lote é contabilizada no job e
+     * não interrompe os lotes seguintes. Os totais por hora de cada lote só são
+     * somados aos da partição após o commit do lote.
+     */
+    private ResultadoImportacao processarParticao(List<PedidoExternoA> particao,
+            Map<LocalDateTime, PedidoEstatisticaHora> totaisParticao, ImportacaoJob job) {
+        ResultadoImportacao total = ResultadoImportacao.VAZIO;
+        for (int inicio = 0; inicio < particao.size(); inicio += tamanhoLote) {
+            List<PedidoExternoA> lote = particao.subList(inicio, Math.min(inicio + tamanhoLote, particao.size()));
+            try {
+                Map<LocalDateTime, PedidoEstatisticaHora> totaisLote = new TreeMap<>();
+                ResultadoImportacao resultado = pedidoService.processarPedidosExternos(lote, totaisLote);
+                estatisticaService.somarTotais(totaisParticao, totaisLote);
+                job.registrar(resultado);
+                total = total.somar(resultado);
+            } catch (RuntimeException e) {
+                job.registrarFalha(lote.size(), e);
+            }
+        }
+        return total;
+    }
+}
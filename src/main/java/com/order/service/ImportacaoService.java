@@ -0,0 +1,147 @@
+package com.order.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import com.order.AsyncConfig;
+import com.order.ImportacaoAgendadaProperties;
+import com.order.ImportacaoAgendadaProperties.Fonte;
+import com.order.exception.ImportacaoRejeitadaException;
+import com.order.model.ImportacaoJob;
+
+/**
+ * Gerencia as importações do Externo A como jobs: cada importação recebe um ID,
+ * roda no executor de importação e tem o progresso consultável pelo ID.
+ * Os jobs finalizados ficam disponíveis para consulta durante o período de
+ * retenção configurado.
+ * A importação reativa só lê fontes configuradas, escolhidas pelo nome em
+ * {@code order.importacao.agendada.fontes}; a requisição nunca informa URLs,
+ * e a quantidade de páginas por fonte é limitada a
+ * {@code order.importacao.max-paginas}.
+ */
+@Service
+public class ImportacaoService {
+
+    private final PedidoExternoAService pedidoExternoAService;
+
+    private final AsyncTaskExecutor importacaoExecutor;
+
+    private final Duration retencao;
+
+    private final int maxPaginas;
+
+    private final Map<String, String> urlsFontes = new ConcurrentHashMap<>();
+
+    private final Map<String, ImportacaoJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportacaoService(PedidoExternoAService pedidoExternoAService,
+            @Qualifier(AsyncConfig.IMPORTACAO_EXECUTOR) AsyncTaskExecutor importacaoExecutor,
+            @Value("${order.importacao.retencao-jobs:1h}") Duration retencao,
+            @Value("${order.importacao.max-paginas:100}") int maxPaginas,
+            ImportacaoAgendadaProperties fontesConfiguradas) {
+        this.pedidoExternoAService = pedidoExternoAService;
+        this.importacaoExecutor = importacaoExecutor;
+        this.retencao = retencao;
+        this.maxPaginas = maxPaginas;
+        for (Fonte fonte : fontesConfiguradas.fontes()) {
+            urlsFontes.put(fonte.nome(), fonte.url());
+        }
+    }
+
+    /**
+     * Enfileira uma nova importação.
+     *
+     * @param modo    O modo de leitura da API externa
+     * @param fontes  Os nomes das fontes configuradas, usados apenas no modo reativo;
+     *                quando vazia, usa ORDER_EXTERNO_A_URL
+     * @param paginas A quantidade de páginas por fonte, usada apenas no modo reativo
+     * @return O job criado, ainda na fila
+     * @throws IllegalArgumentException     Caso alguma fonte não esteja configurada
+     *                                      ou a quantidade de páginas esteja fora
+     *                                      do intervalo de 1 a
+     *                                      {@code order.importacao.max-paginas}
+     * @throws ImportacaoRejeitadaException Caso o executor e sua fila estejam cheios
+     */
+    public ImportacaoJob iniciar(ImportacaoJob.Modo modo, List<String> fontes, int paginas) {
+        if (paginas < 1 || paginas > maxPaginas) {
+            throw new IllegalArgumentException("A quantidade de páginas deve estar entre 1 e " + maxPaginas + ".");
+        }
+        List<String> urls = resolverFontes(fontes);
+        removerExpirados();
+
+        ImportacaoJob job = new ImportacaoJob(modo);
+        jobs.put(job.getId(), job);
+        try {
+            importacaoExecutor.execute(() -> executar(job, urls, paginas));
+        } catch (TaskRejectedException e) {
+            jobs.remove(job.getId());
+            throw new ImportacaoRejeitadaException("Limite de importações simultâneas atingido. Tente novamente mais tarde.");
+        }
+        return job;
+    }
+
+    /**
+     * Registra um job iniciado fora deste serviço, como os da importação
+     * agendada, para que o progresso seja consultável pelo ID.
+     *
+     * @param job O job a registrar
+     */
+    public void registrar(ImportacaoJob job) {
+        removerExpirados();
+        jobs.put(job.getId(), job);
+    }
+
+    /**
+     * Retorna um job de importação pelo seu ID.
+     *
+     * @param id O ID do job
+     * @return O job correspondente ao ID, se existir e ainda estiver retido
+     */
+    public Optional<ImportacaoJob> findById(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    // Métodos Auxiliares
+
+    private void executar(ImportacaoJob job, List<String> urls, int paginas) {
+        job.iniciar();
+        try {
+            switch (job.getModo()) {
+                case STREAMING -> pedidoExternoAService.importarPedidosExternoAStreaming(job);
+                case REATIVO -> pedidoExternoAService.importarPedidosExternoAReativo(urls, paginas, job).block();
+                default -> pedidoExternoAService.importarPedidosExternoA(job);
+            }
+            job.concluir();
+        } catch (Exception e) {
+            job.falhar(e);
+        }
+    }
+
+    private List<String> resolverFontes(List<String> fontes) {
+        List<String> urls = new ArrayList<>(fontes.size());
+        for (String fonte : fontes) {
+            String url = urlsFontes.get(fonte);
+            if (url == null) {
+                throw new IllegalArgumentException("Fonte de importação não configurada: " + fonte);
+            }
+            urls.add(url);
+        }
+        return urls;
+    }
+
+    private void removerExpirados() {
+        Instant limite = Instant.now().minus(retencao);
+        jobs.values().removeIf(job -> job.finalizadoAntesDe(limite));
+    }
+}
@@ -1,20 +1,57 @@
 package com.order.service;
 
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envia registros ao Kafka sem aguardar a confirmação do broker: o produtor
+ * agrupa os registros em lotes (linger.ms/batch.size) e o resultado de cada
+ * envio alimenta as métricas {@code order.kafka.eventos}.
+ * Os eventos de pedidos importados chegam aqui pelo {@link OutboxService}.
+ */
 @Service
 public class KafkaProducer {
 
     private final KafkaTemplate<String, String> kafkaTemplate;
 
-    private static final String TOPIC = "pedidos-importados";
+    private final Counter enviados;
+
+    private final Counter falhas;
+
+    static final String TOPIC = "pedidos-importados";
 
-    public KafkaProducer(KafkaTemplate<String, String> kafkaTemplate) {
+    public KafkaProducer(KafkaTemplate<String, String> kafkaTemplate, MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
+        this.enviados = Counter.builder("order.kafka.eventos")
+                .tag("resultado", "sucesso")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("order.kafka.eventos")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
     }
 
-    public void sendMensagemImportacao(String mensagem) {
-        kafkaTemplate.send(TOPIC, mensagem);
+    /**
+     * Envia um registro.
+     *
+     * @param topico O tópico de destino
+     * @param chave  A chave do registro, que define a partição
+     * @param valor  O conteúdo do registro
+     * @return O resultado do envio, concluído quando o broker confirmar
+     */
+    public CompletableFuture<SendResult<String, String>> enviar(String topico, String chave, String valor) {
+        return kafkaTemplate.send(topico, chave, valor)
+                .whenComplete((resultado, erro) -> {
+                    if (erro == null) {
+                        enviados.increment();
+                    } else {
+                        falhas.increment();
+                    }
+                });
     }
 }
@@ -0,0 +1,132 @@
+package com.order.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.order.repository.LimiteRequisicoesRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Limite de requisições por cliente, com um token bucket por chave.
+ * Por padrão os baldes ficam em memória, e cada instância aplica o limite
+ * sozinha; com {@code order.ratelimit.armazenamento=postgres} os baldes ficam
+ * no banco e o limite vale para todas as instâncias atrás do balanceador.
+ * Para que uma leitura não vire um UPDATE na primária a cada requisição, a
+ * instância reserva no banco {@code order.ratelimit.tokens-por-reserva} tokens
+ * de uma vez e atende as requisições seguintes do cliente com essa cota local,
+ * voltando ao banco apenas quando ela acaba. A cota não usada expira no tempo
+ * de reposição dos seus tokens; com várias instâncias, um cliente pode ser
+ * limitado um pouco antes do limite, nunca depois.
+ * Se o banco falhar, a instância passa a usar os baldes em memória.
+ */
+@Service
+public class LimiteRequisicoesService {
+
+    public enum Armazenamento {
+        MEMORIA, POSTGRES
+    }
+
+    private final LimiteRequisicoesRepository limiteRequisicoesRepository;
+
+    private final Armazenamento armazenamento;
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    private final Cache<String, TokenBucket> baldes;
+
+    private final int tokensPorReserva;
+
+    // Tokens já reservados no banco e ainda não usados por esta instância, por cliente
+    private final Cache<String, AtomicInteger> cotasLocais;
+
+    private final Counter falhasArmazenamento;
+
+    public LimiteRequisicoesService(LimiteRequisicoesRepository limiteRequisicoesRepository,
+            MeterRegistry meterRegistry,
+            @Value("${order.ratelimit.limite:10}") int limite,
+            @Value("${order.ratelimit.periodo:1s}") Duration periodo,
+            @Value("${order.ratelimit.capacidade:10}") int capacidade,
+            @Value("${order.ratelimit.armazenamento:MEMORIA}") Armazenamento armazenamento,
+            @Value("${order.ratelimit.maximo-clientes:100000}") long maximoClientes,
+            @Value("${order.ratelimit.tokens-por-reserva:5}") int tokensPorReserva) {
+        this.limiteRequisicoesRepository = limiteRequisicoesRepository;
+        this.armazenamento = armazenamento;
+        this.intervaloNanos = periodo.toNanos() / limite;
+        this.toleranciaNanos = intervaloNanos * (capacidade - 1);
+        // Um balde sem uso por mais que o tempo de enchê-lo equivale a um balde novo
+        long tempoEnchimentoNanos = Math.max(toleranciaNanos + intervaloNanos, Duration.ofMinutes(1).toNanos());
+        this.baldes = Caffeine.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterAccess(Duration.ofNanos(tempoEnchimentoNanos))
+                .build();
+        this.tokensPorReserva = Math.max(1, Math.min(tokensPorReserva, capacidade));
+        this.cotasLocais = Caffeine.newBuilder()
+                .maximumSize(maximoClientes)
+                .expireAfterWrite(Duration.ofNanos(intervaloNanos * this.tokensPorReserva))
+                .build();
+        this.falhasArmazenamento = Counter.builder("order.ratelimiter.falhas-armazenamento")
+                .description("Consumos que usaram o balde em memória por falha no armazenamento compartilhado")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Tenta consumir um token do balde do cliente.
+     *
+     * @param cliente A chave do cliente (chave de API ou IP)
+     * @return Zero se a requisição pode seguir; caso contrário, quanto tempo o
+     *         cliente deve esperar
+     */
+    public Duration consumir(String cliente) {
+        if (armazenamento == Armazenamento.POSTGRES) {
+            AtomicInteger cota = cotasLocais.get(cliente, chave -> new AtomicInteger());
+            if (cota.getAndUpdate(tokens -> Math.max(tokens - 1, 0)) > 0) {
+                return Duration.ZERO;
+            }
+            try {
+                return reservar(cliente, cota) ? Duration.ZERO : Duration.ofNanos(intervaloNanos);
+            } catch (DataAccessException e) {
+                falhasArmazenamento.increment();
+            }
+        }
+        TokenBucket balde = baldes.get(cliente, chave -> new TokenBucket(intervaloNanos, toleranciaNanos));
+        return Duration.ofNanos(balde.consumir(System.nanoTime()));
+    }
+
+    /**
+     * Remove do banco os baldes já cheios, quando o armazenamento é compartilhado.
+     */
+    @Scheduled(fixedDelayString = "${order.ratelimit.intervalo-limpeza-ms:60000}")
+    public void removerCheios() {
+        if (armazenamento == Armazenamento.POSTGRES) {
+            limiteRequisicoesRepository.removerCheios();
+        }
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Reserva no banco uma cota de tokens para o cliente e consome o primeiro.
+     * Se o balde não tiver a cota inteira, tenta reservar apenas um token.
+     */
+    private boolean reservar(String cliente, AtomicInteger cota) {
+        long intervaloMicros = intervaloNanos / 1000;
+        long toleranciaMicros = toleranciaNanos / 1000;
+        if (limiteRequisicoesRepository.consumir(cliente, tokensPorReserva, intervaloMicros, toleranciaMicros)) {
+            cota.addAndGet(tokensPorReserva - 1);
+            return true;
+        }
+        return tokensPorReserva > 1
+                && limiteRequisicoesRepository.consumir(cliente, 1, intervaloMicros, toleranciaMicros);
+    }
+}
@@ -0,0 +1,144 @@
+package com.order.service;
+
+import java.sql.Types;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.order.repository.RoteamentoDataSource;
+import com.order.repository.RoteamentoDataSource.Replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Mede periodicamente o atraso de cada réplica em relação à primária, usado pelo
+ * {@link RoteamentoDataSource} para decidir quais réplicas recebem leituras.
+ * Uma réplica que já aplicou o WAL até a posição atual da primária, lida antes
+ * da réplica, está em dia, mesmo que a primária esteja ociosa; caso contrário, o
+ * atraso é o tempo desde a última transação aplicada. Uma réplica sem o
+ * recebimento do WAL em andamento ({@code pg_stat_wal_receiver}; o usuário das
+ * réplicas precisa de {@code pg_monitor}), que não esteja em recuperação ou que
+ * falhe na medição deixa de receber leituras até a próxima medição bem-sucedida.
+ * As medições rodam em um agendador próprio, fora do agendador compartilhado
+ * pela importação agendada e pela limpeza do outbox, com timeout por consulta:
+ * uma réplica inacessível não atrasa as demais tarefas agendadas.
+ */
+@Service
+public class MonitorReplicasService {
+
+    private static final String SQL_POSICAO_PRIMARIA = "SELECT pg_current_wal_lsn()::text";
+
+    // O atraso é nulo quando a réplica não está transmitindo
+    private static final String SQL_LAG = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() "
+            + "OR NOT coalesce((SELECT status = 'streaming' FROM pg_stat_wal_receiver), false) THEN NULL "
+            + "WHEN coalesce(pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0, false) THEN 0 "
+            + "ELSE extract(epoch FROM now() - pg_last_xact_replay_timestamp()) END";
+
+    private final JdbcTemplate primaria;
+
+    private final List<Replica> replicas;
+
+    private final List<JdbcTemplate> consultasReplicas;
+
+    private final Duration intervalo;
+
+    private final ThreadPoolTaskScheduler agendador = new ThreadPoolTaskScheduler();
+
+    public MonitorReplicasService(RoteamentoDataSource roteamentoDataSource, MeterRegistry meterRegistry,
+            @Value("${order.datasource.replicas.intervalo-verificacao-ms:1000}") long intervaloMs,
+            @Value("${order.datasource.replicas.timeout-verificacao:1s}") Duration timeout) {
+        this.intervalo = Duration.ofMillis(intervaloMs);
+        int timeoutSegundos = (int) Math.max(timeout.toSeconds(), 1);
+        this.primaria = criarJdbcTemplate(roteamentoDataSource.getPrimaria(), timeoutSegundos);
+        this.replicas = roteamentoDataSource.getReplicas();
+        this.consultasReplicas = new ArrayList<>(replicas.size());
+        for (Replica replica : replicas) {
+            consultasReplicas.add(criarJdbcTemplate(replica.dataSource(), timeoutSegundos));
+            Gauge.builder("order.datasource.replica.lag", replica,
+                    r -> r.lag() != null ? r.lag().toNanos() / 1_000_000_000.0 : Double.NaN)
+                    .description("Atraso da réplica em relação à primária, em segundos")
+                    .tag("replica", replica.nome())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Inicia as medições periódicas, quando há réplicas configuradas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        agendador.setThreadNamePrefix("monitor-replicas-");
+        agendador.initialize();
+        agendador.scheduleWithFixedDelay(this::verificar, intervalo);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdown();
+    }
+
+    /**
+     * Mede o atraso de todas as réplicas.
+     */
+    public void verificar() {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long medidoEm = System.nanoTime();
+        String posicaoPrimaria = lerPosicaoPrimaria();
+        for (int i = 0; i < replicas.size(); i++) {
+            medir(replicas.get(i), consultasReplicas.get(i), posicaoPrimaria, medidoEm);
+        }
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * @return A posição atual do WAL na primária, ou {@code null} se a primária
+     *         não responder; nesse caso, vale apenas o tempo desde a última
+     *         transação aplicada
+     */
+    private String lerPosicaoPrimaria() {
+        try {
+            return primaria.queryForObject(SQL_POSICAO_PRIMARIA, String.class);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void medir(Replica replica, JdbcTemplate consulta, String posicaoPrimaria, long medidoEm) {
+        try {
+            Double segundos = consulta.queryForObject(SQL_LAG, Double.class,
+                    new SqlParameterValue(Types.VARCHAR, posicaoPrimaria));
+            if (segundos == null) {
+                replica.marcarIndisponivel();
+                return;
+            }
+            replica.registrarLag(Duration.ofNanos((long) (segundos * 1_000_000_000L)), medidoEm);
+        } catch (RuntimeException e) {
+            replica.marcarIndisponivel();
+        }
+    }
+
+    private JdbcTemplate criarJdbcTemplate(DataSource dataSource, int timeoutSegundos) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setQueryTimeout(timeoutSegundos);
+        return jdbcTemplate;
+    }
+}
@@ -0,0 +1,217 @@
+package com.order.service;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.model.OutboxEvento;
+import com.order.model.Pedido;
+import com.order.model.mapper.PedidoMapper;
+import com.order.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Outbox transacional dos eventos de pedidos importados.
+ * Os eventos são gravados na mesma transação que os pedidos, de modo que um
+ * pedido gravado sempre tem seu evento, e a importação não espera pelo broker.
+ * Um relay agendado reserva os eventos pendentes em lotes limitados, publica
+ * pelo {@link KafkaProducer} e marca como enviados os confirmados; os demais
+ * permanecem pendentes para a próxima execução.
+ * O relay roda em um agendador próprio, para que a espera pelo broker não atrase
+ * as demais tarefas agendadas, e apenas uma instância publica por vez, com o
+ * bloqueio do relay ({@link OutboxRepository#executarComoRelay}), de modo que os
+ * eventos de uma chave nunca são publicados por dois relays ao mesmo tempo.
+ * A reserva, a publicação e a marcação são etapas separadas: a reserva é um
+ * prazo gravado no evento, e nenhuma transação fica aberta enquanto o relay
+ * espera as confirmações do broker. Depois que um evento falha, os eventos
+ * seguintes da mesma chave não são marcados como enviados, mesmo que
+ * confirmados, para que sejam reenviados na ordem.
+ */
+@Service
+public class OutboxService {
+
+    private final OutboxRepository outboxRepository;
+
+    private final KafkaProducer kafkaProducer;
+
+    private final ObjectMapper objectMapper;
+
+    private final DistributionSummary tamanhoLoteRelay;
+
+    private final Timer latenciaPublicacao;
+
+    private final AtomicLong lagMs = new AtomicLong();
+
+    private final ThreadPoolTaskScheduler agendador = new ThreadPoolTaskScheduler();
+
+    @Value("${order.outbox.intervalo-ms:500}")
+    private long intervaloMs = 500;
+
+    @Value("${order.outbox.tamanho-lote:500}")
+    private int tamanhoLote = 500;
+
+    @Value("${order.outbox.timeout-publicacao:10s}")
+    private Duration timeoutPublicacao = Duration.ofSeconds(10);
+
+    @Value("${order.outbox.duracao-reserva:1m}")
+    private Duration duracaoReserva = Duration.ofMinutes(1);
+
+    @Value("${order.outbox.retencao:1d}")
+    private Duration retencao = Duration.ofDays(1);
+
+    public OutboxService(OutboxRepository outboxRepository, KafkaProducer kafkaProducer, ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.objectMapper = objectMapper;
+        this.tamanhoLoteRelay = DistributionSummary.builder("order.outbox.lote")
+                .description("Eventos reservados por execução do relay")
+                .register(meterRegistry);
+        this.latenciaPublicacao = Timer.builder("order.outbox.publicacao")
+                .description("Tempo para publicar um lote do outbox e receber as confirmações")
+                .register(meterRegistry);
+        meterRegistry.gauge("order.outbox.lag", lagMs, lag -> lag.get() / 1000.0);
+    }
+
+    /**
+     * Grava um evento por pedido importado. Deve ser chamado na transação que
+     * persiste os pedidos, depois que os IDs forem atribuídos.
+     *
+     * @param pedidos Os pedidos importados
+     */
+    public void registrarPedidosImportados(List<Pedido> pedidos) {
+        List<OutboxEvento> eventos = new ArrayList<>(pedidos.size());
+        for (Pedido pedido : pedidos) {
+            OutboxEvento evento = new OutboxEvento();
+            evento.setTopico(KafkaProducer.TOPIC);
+            evento.setChave(pedido.getNumeroPedido());
+            evento.setPayload(serializar(pedido));
+            eventos.add(evento);
+        }
+        outboxRepository.inserir(eventos);
+    }
+
+    /**
+     * Inicia o relay no agendador próprio.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        agendador.setThreadNamePrefix("outbox-relay-");
+        agendador.initialize();
+        agendador.scheduleWithFixedDelay(this::publicarPendentes, Duration.ofMillis(intervaloMs));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdown();
+    }
+
+    /**
+     * Publica um lote de eventos pendentes, se nenhuma outra instância estiver
+     * publicando. Os eventos ficam reservados durante a publicação; ao final, os
+     * confirmados pelo broker são marcados como enviados e a reserva dos demais é
+     * desfeita.
+     *
+     * @return A quantidade de eventos publicados
+     */
+    public int publicarPendentes() {
+        return outboxRepository.executarComoRelay(this::publicarLote).orElse(0);
+    }
+
+    /**
+     * Remove os eventos já enviados há mais tempo que a retenção configurada.
+     */
+    @Scheduled(fixedDelayString = "${order.outbox.intervalo-limpeza-ms:3600000}")
+    public void removerEnviados() {
+        outboxRepository.removerEnviadosAntesDe(OffsetDateTime.now().minus(retencao));
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Reserva, publica e marca um lote pela conexão do bloqueio do relay. Se a
+     * liberação dos não publicados falhar depois da marcação, eles voltam a ser
+     * reservados quando o prazo da reserva expirar.
+     */
+    private int publicarLote(OutboxRepository relay) {
+        List<OutboxEvento> eventos = relay.reservarPendentes(tamanhoLote, duracaoReserva);
+        tamanhoLoteRelay.record(eventos.size());
+        if (eventos.isEmpty()) {
+            lagMs.set(0);
+            return 0;
+        }
+        lagMs.set(Duration.between(eventos.get(0).getCriadoEm(), OffsetDateTime.now()).toMillis());
+
+        List<Long> enviados = latenciaPublicacao.record(() -> publicar(eventos));
+        Set<Long> idsEnviados = new HashSet<>(enviados);
+        List<Long> pendentes = eventos.stream().map(OutboxEvento::getId).filter(id -> !idsEnviados.contains(id))
+                .toList();
+        relay.marcarEnviados(enviados);
+        relay.liberar(pendentes);
+        return enviados.size();
+    }
+
+    /**
+     * Envia todos os eventos sem esperar um a um e aguarda as confirmações, na
+     * ordem dos eventos.
+     *
+     * @return Os IDs dos eventos confirmados pelo broker e sem falha anterior da mesma chave
+     */
+    private List<Long> publicar(List<OutboxEvento> eventos) {
+        List<CompletableFuture<?>> envios = new ArrayList<>(eventos.size());
+        for (OutboxEvento evento : eventos) {
+            envios.add(kafkaProducer.enviar(evento.getTopico(), evento.getChave(), evento.getPayload()));
+        }
+
+        long prazo = System.nanoTime() + timeoutPublicacao.toNanos();
+        List<Long> enviados = new ArrayList<>(eventos.size());
+        Set<String> chavesComFalha = new HashSet<>();
+        for (int i = 0; i < eventos.size(); i++) {
+            OutboxEvento evento = eventos.get(i);
+            try {
+                envios.get(i).get(Math.max(prazo - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+                if (evento.getChave() == null || !chavesComFalha.contains(evento.getChave())) {
+                    enviados.add(evento.getId());
+                }
+            } catch (ExecutionException | TimeoutException e) {
+                // Permanece pendente e será reenviado na próxima execução, com os seguintes da mesma chave
+                if (evento.getChave() != null) {
+                    chavesComFalha.add(evento.getChave());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return enviados;
+    }
+
+    private String serializar(Pedido pedido) {
+        try {
+            return objectMapper.writeValueAsString(PedidoMapper.toMensagem(pedido));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o pedido " + pedido.getNumeroPedido(), e);
+        }
+    }
+}
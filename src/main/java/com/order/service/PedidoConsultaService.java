@@ -0,0 +1,227 @@
+package com.order.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.order.event.PedidosImportadosEvent;
+import com.order.model.Pedido;
+import com.order.model.dto.PedidoDTO;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.model.dto.PedidoSnapshot;
+import com.order.model.dto.VersaoPedido;
+import com.order.model.mapper.PedidoMapper;
+import com.order.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Consultas de pedidos por ID e por número com cache read-through.
+ * O cache guarda cópias imutáveis ({@link PedidoSnapshot}), nunca entidades
+ * gerenciadas: o pedido projetado em uma única consulta e o JSON já serializado,
+ * de modo que leituras repetidas não passam pelo Hibernate nem pelo Jackson.
+ * Também registra as consultas sem resultado (cache negativo), com um TTL menor.
+ * Requisições simultâneas por um mesmo pedido ausente do cache disparam uma
+ * única consulta: o Caffeine executa a carga uma vez por chave e as demais aguardam.
+ * As entradas são invalidadas quando uma importação grava novos pedidos. A
+ * invalidação é local: só a instância que gravou os pedidos a recebe, e as
+ * demais continuam servindo suas entradas, inclusive as negativas, até o TTL.
+ * As consultas ao banco rodam em transações somente leitura, atendidas pelas
+ * réplicas de leitura quando configuradas. Um pedido invalidado há menos de
+ * {@code order.cache.pedidos.janela-primaria} é recarregado da primária, para
+ * que uma réplica que ainda não aplicou a gravação não volte a colocar no
+ * cache uma entrada desatualizada ou negativa por todo o TTL.
+ */
+@Service
+public class PedidoConsultaService {
+
+    private final PedidoRepository pedidoRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transacaoLeitura;
+
+    private final TransactionTemplate transacaoPrimaria;
+
+    // IDs e números de pedidos invalidados recentemente, lidos da primária até a janela expirar
+    private final Cache<Object, Boolean> gravadosRecentemente;
+
+    private final LoadingCache<Long, Optional<PedidoSnapshot>> pedidosPorId;
+
+    private final LoadingCache<String, Optional<PedidoSnapshot>> pedidosPorNumero;
+
+    public PedidoConsultaService(PedidoRepository pedidoRepository, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+            @Value("${order.cache.pedidos.tamanho-maximo:10000}") long tamanhoMaximo,
+            @Value("${order.cache.pedidos.ttl:5m}") Duration ttl,
+            @Value("${order.cache.pedidos.ttl-negativo:30s}") Duration ttlNegativo,
+            @Value("${order.cache.pedidos.janela-primaria:10s}") Duration janelaPrimaria) {
+        this.pedidoRepository = pedidoRepository;
+        this.objectMapper = objectMapper;
+        this.transacaoLeitura = new TransactionTemplate(transactionManager);
+        this.transacaoLeitura.setReadOnly(true);
+        this.transacaoPrimaria = new TransactionTemplate(transactionManager);
+        this.gravadosRecentemente = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(janelaPrimaria)
+                .build();
+
+        this.pedidosPorId = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoPedido<Long>(ttl, ttlNegativo))
+                .recordStats()
+                .build(this::carregarPorId);
+
+        this.pedidosPorNumero = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfter(new ExpiracaoPedido<String>(ttl, ttlNegativo))
+                .recordStats()
+                .build(this::carregarPorNumero);
+
+        CaffeineCacheMetrics.monitor(meterRegistry, pedidosPorId, "pedidos.por-id");
+        CaffeineCacheMetrics.monitor(meterRegistry, pedidosPorNumero, "pedidos.por-numero");
+    }
+
+    /**
+     * Retorna um pedido pelo seu ID, consultando o banco apenas em caso de falta no cache.
+     *
+     * @param id O ID do pedido
+     * @return O pedido correspondente ao ID, se existir
+     */
+    public Optional<PedidoSnapshot> findById(Long id) {
+        return pedidosPorId.get(id);
+    }
+
+    /**
+     * Retorna um pedido pelo seu número, consultando o banco apenas em caso de falta no cache.
+     *
+     * @param numeroPedido O número do pedido
+     * @return O pedido correspondente ao número, se existir
+     */
+    public Optional<PedidoSnapshot> findByNumeroPedido(String numeroPedido) {
+        return pedidosPorNumero.get(numeroPedido);
+    }
+
+    /**
+     * Retorna apenas a versão de um pedido, para as requisições condicionais.
+     * Se o pedido estiver no cache, a versão vem do snapshot; senão, de uma
+     * consulta leve que não carrega os itens nem popula o cache.
+     *
+     * @param id O ID do pedido
+     * @return A versão do pedido, se existir
+     */
+    public Optional<VersaoPedido> findVersaoById(Long id) {
+        Optional<PedidoSnapshot> pedido = pedidosPorId.getIfPresent(id);
+        return pedido != null ? pedido.map(PedidoSnapshot::versao)
+                : transacaoLeitura.execute(status -> pedidoRepository.findVersaoById(id));
+    }
+
+    /**
+     * Retorna apenas a versão de um pedido pelo número, para as requisições condicionais.
+     *
+     * @param numeroPedido O número do pedido
+     * @return A versão do pedido, se existir
+     */
+    public Optional<VersaoPedido> findVersaoByNumeroPedido(String numeroPedido) {
+        Optional<PedidoSnapshot> pedido = pedidosPorNumero.getIfPresent(numeroPedido);
+        return pedido != null ? pedido.map(PedidoSnapshot::versao)
+                : transacaoLeitura.execute(status -> pedidoRepository.findVersaoByNumeroPedido(numeroPedido));
+    }
+
+    /**
+     * Invalida as entradas dos pedidos gravados por uma importação, após o commit.
+     * Remove principalmente as entradas negativas de pedidos que passaram a existir.
+     * Apenas o cache desta instância é invalidado.
+     *
+     * @param evento O evento com os pedidos importados
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void invalidar(PedidosImportadosEvent evento) {
+        for (Pedido pedido : evento.pedidos()) {
+            gravadosRecentemente.put(pedido.getId(), Boolean.TRUE);
+            gravadosRecentemente.put(pedido.getNumeroPedido(), Boolean.TRUE);
+            pedidosPorId.invalidate(pedido.getId());
+            pedidosPorNumero.invalidate(pedido.getNumeroPedido());
+        }
+    }
+
+    // Métodos Auxiliares
+
+    private Optional<PedidoSnapshot> carregarPorId(Long id) {
+        Optional<PedidoSnapshot> pedido = criarSnapshot(
+                transacao(id).execute(status -> pedidoRepository.findLinhasByIdIn(List.of(id))));
+        pedido.ifPresent(snapshot -> pedidosPorNumero.put(snapshot.pedido().numeroPedido(), pedido));
+        return pedido;
+    }
+
+    private Optional<PedidoSnapshot> carregarPorNumero(String numeroPedido) {
+        Optional<PedidoSnapshot> pedido = criarSnapshot(
+                transacao(numeroPedido).execute(status -> pedidoRepository.findLinhasByNumeroPedido(numeroPedido)));
+        pedido.ifPresent(snapshot -> pedidosPorId.put(snapshot.pedido().id(), pedido));
+        return pedido;
+    }
+
+    /**
+     * Escolhe a transação da carga: na primária para um pedido invalidado dentro
+     * da janela, somente leitura (réplica) para os demais.
+     */
+    private TransactionTemplate transacao(Object chave) {
+        return gravadosRecentemente.getIfPresent(chave) != null ? transacaoPrimaria : transacaoLeitura;
+    }
+
+    private Optional<PedidoSnapshot> criarSnapshot(List<PedidoLinhaProjecao> linhas) {
+        if (linhas.isEmpty()) {
+            return Optional.empty();
+        }
+        PedidoDTO pedido = PedidoMapper.toDTOs(linhas).get(0);
+        try {
+            return Optional.of(new PedidoSnapshot(pedido, objectMapper.writeValueAsBytes(pedido)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o pedido " + pedido.id(), e);
+        }
+    }
+
+    /**
+     * Define a expiração das entradas: o TTL completo para pedidos encontrados e
+     * o TTL negativo para consultas sem resultado.
+     */
+    private static class ExpiracaoPedido<K> implements Expiry<K, Optional<PedidoSnapshot>> {
+
+        private final long ttlNanos;
+
+        private final long ttlNegativoNanos;
+
+        ExpiracaoPedido(Duration ttl, Duration ttlNegativo) {
+            this.ttlNanos = ttl.toNanos();
+            this.ttlNegativoNanos = ttlNegativo.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(K chave, Optional<PedidoSnapshot> pedido, long tempoAtual) {
+            return pedido.isPresent() ? ttlNanos : ttlNegativoNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(K chave, Optional<PedidoSnapshot> pedido, long tempoAtual, long duracaoAtual) {
+            return expireAfterCreate(chave, pedido, tempoAtual);
+        }
+
+        @Override
+        public long expireAfterRead(K chave, Optional<PedidoSnapshot> pedido, long tempoAtual, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
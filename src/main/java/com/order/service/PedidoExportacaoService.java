@@ -0,0 +1,193 @@
+package com.order.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.order.model.dto.FormatoExportacao;
+import com.order.model.dto.PedidoDTO;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.model.mapper.PedidoMapper;
+import com.order.repository.PedidoExportacaoRepository;
+
+/**
+ * Exportação de todos os pedidos, com seus itens, em NDJSON ou CSV.
+ * As linhas são lidas por um cursor JDBC e escritas na saída conforme chegam,
+ * em uma transação somente leitura; a memória usada independe da quantidade
+ * de pedidos, limitada ao fetch do cursor e aos itens de um pedido.
+ */
+@Service
+public class PedidoExportacaoService {
+
+    private static final int TAMANHO_BUFFER = 64 * 1024;
+
+    private static final String CABECALHO_CSV = "pedido_id,numero_pedido,valor,desconto_percentual,data_cadastro,"
+            + "pedido_produto_id,produto_id,produto_nome,produto_valor,quantidade\n";
+
+    private final PedidoExportacaoRepository pedidoExportacaoRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ObjectWriter escritorPedido;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public PedidoExportacaoService(PedidoExportacaoRepository pedidoExportacaoRepository, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.pedidoExportacaoRepository = pedidoExportacaoRepository;
+        this.objectMapper = objectMapper;
+        // Sem flush a cada pedido: a saída é descarregada quando o buffer enche
+        this.escritorPedido = objectMapper.writerFor(PedidoDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * Escreve os pedidos cadastrados no período na saída informada, em ordem de ID.
+     * A saída não é fechada.
+     *
+     * @param formato O formato da exportação
+     * @param desde   Início do período de cadastro, inclusivo; opcional
+     * @param ate     Fim do período de cadastro, exclusivo; opcional
+     * @param saida   A saída, normalmente o corpo da resposta HTTP
+     * @throws IOException Caso a escrita falhe, por exemplo se o cliente desconectar
+     */
+    public void exportar(FormatoExportacao formato, LocalDateTime desde, LocalDateTime ate, OutputStream saida)
+            throws IOException {
+        Exportador exportador = formato == FormatoExportacao.CSV ? new ExportadorCsv(saida)
+                : new ExportadorNdjson(saida);
+        try {
+            transactionTemplate.executeWithoutResult(status -> pedidoExportacaoRepository.exportar(desde, ate,
+                    exportador));
+            exportador.finalizar();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Recebe as linhas da consulta e as escreve no formato de saída.
+     */
+    private interface Exportador extends Consumer<PedidoLinhaProjecao> {
+
+        void finalizar() throws IOException;
+    }
+
+    /**
+     * Agrupa as linhas consecutivas de um pedido e escreve o pedido, com seus
+     * itens, como um objeto JSON por linha.
+     */
+    private class ExportadorNdjson implements Exportador {
+
+        private final JsonGenerator gerador;
+
+        private final List<PedidoLinhaProjecao> linhasPedido = new ArrayList<>();
+
+        ExportadorNdjson(OutputStream saida) throws IOException {
+            this.gerador = objectMapper.getFactory().createGenerator(saida)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        public void accept(PedidoLinhaProjecao linha) {
+            if (!linhasPedido.isEmpty() && !linhasPedido.get(0).pedidoId().equals(linha.pedidoId())) {
+                escreverPedido();
+            }
+            linhasPedido.add(linha);
+        }
+
+        @Override
+        public void finalizar() throws IOException {
+            if (!linhasPedido.isEmpty()) {
+                escreverPedido();
+            }
+            gerador.close();
+        }
+
+        private void escreverPedido() {
+            try {
+                escritorPedido.writeValue(gerador, PedidoMapper.toDTOs(linhasPedido).get(0));
+                gerador.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            linhasPedido.clear();
+        }
+    }
+
+    /**
+     * Escreve cada linha da consulta (pedido e item) como uma linha CSV.
+     */
+    private static class ExportadorCsv implements Exportador {
+
+        private final Writer escritor;
+
+        ExportadorCsv(OutputStream saida) throws IOException {
+            this.escritor = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8), TAMANHO_BUFFER);
+            this.escritor.write(CABECALHO_CSV);
+        }
+
+        @Override
+        public void accept(PedidoLinhaProjecao linha) {
+            try {
+                escrever(linha.pedidoId(), ',');
+                escrever(linha.numeroPedido(), ',');
+                escrever(linha.valor(), ',');
+                escrever(linha.descontoPercentual(), ',');
+                escrever(linha.dataCadastro(), ',');
+                escrever(linha.pedidoProdutoId(), ',');
+                escrever(linha.produtoId(), ',');
+                escrever(linha.produtoNome(), ',');
+                escrever(linha.produtoValor(), ',');
+                escrever(linha.quantidade(), '\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void finalizar() throws IOException {
+            escritor.flush();
+        }
+
+        /**
+         * Escreve um campo seguido do separador. Campos com vírgula, aspas ou
+         * quebra de linha vão entre aspas, com as aspas internas duplicadas.
+         */
+        private void escrever(Object campo, char separador) throws IOException {
+            if (campo != null) {
+                String valor = campo instanceof BigDecimal decimal ? decimal.toPlainString() : campo.toString();
+                if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0
+                        || valor.indexOf('\r') >= 0) {
+                    escritor.write('"');
+                    escritor.write(valor.replace("\"", "\"\""));
+                    escritor.write('"');
+                } else {
+                    escritor.write(valor);
+                }
+            }
+            escritor.write(separador);
+        }
+    }
+}
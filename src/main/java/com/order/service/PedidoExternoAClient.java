@@ -0,0 +1,84 @@
+package com.order.service;
+
+import java.net.URI;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.order.model.PedidoExternoA;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Cliente não bloqueante da API Externo A.
+ * A resposta é decodificada elemento a elemento como um {@link Flux}, respeitando
+ * a demanda do consumidor (backpressure): novos pedidos só são lidos da conexão
+ * conforme os anteriores são processados.
+ */
+@Component
+public class PedidoExternoAClient {
+
+    private final WebClient webClient;
+
+    private final String parametroPagina;
+
+    public PedidoExternoAClient(@Qualifier("externoAWebClient") WebClient webClient,
+            @Value("${order.externo-a.parametro-pagina:pagina}") String parametroPagina) {
+        this.webClient = webClient;
+        this.parametroPagina = parametroPagina;
+    }
+
+    /**
+     * Obtém os pedidos de uma URL da API Externo A em streaming.
+     *
+     * @param url A URL que retorna um array JSON de pedidos
+     * @return Um Flux com os pedidos, na ordem da resposta
+     */
+    public Flux<PedidoExternoA> streamPedidos(URI url) {
+        return webClient.get()
+                .uri(url)
+                .accept(MediaType.APPLICATION_JSON)
+                .retrieve()
+                .bodyToFlux(PedidoExternoA.class);
+    }
+
+    /**
+     * Obtém os pedidos de várias páginas da API Externo A, buscando até
+     * {@code concorrencia} páginas ao mesmo tempo sem ocupar uma thread por
+     * requisição em andamento.
+     *
+     * @param url          A URL base da API
+     * @param paginas      A quantidade de páginas a buscar, a partir da página 0
+     * @param concorrencia A quantidade máxima de páginas buscadas em paralelo
+     * @return Um Flux com os pedidos de todas as páginas, sem ordem garantida entre páginas
+     */
+    public Flux<PedidoExternoA> streamPaginas(String url, int paginas, int concorrencia) {
+        if (paginas <= 1) {
+            return streamPedidos(URI.create(url));
+        }
+        return Flux.range(0, paginas)
+                .flatMap(pagina -> streamPagina(url, pagina, Map.of()), concorrencia);
+    }
+
+    /**
+     * Obtém os pedidos de uma página da API Externo A em streaming.
+     *
+     * @param url        A URL base da API
+     * @param pagina     O número da página; {@code null} para chamar a URL sem o parâmetro de página
+     * @param parametros Parâmetros de consulta adicionais, como a posição da última importação
+     * @return Um Flux com os pedidos da página, na ordem da resposta
+     */
+    public Flux<PedidoExternoA> streamPagina(String url, Integer pagina, Map<String, String> parametros) {
+        UriComponentsBuilder uri = UriComponentsBuilder.fromUriString(url);
+        if (pagina != null) {
+            uri.queryParam(parametroPagina, pagina);
+        }
+        parametros.forEach(uri::queryParam);
+        return streamPedidos(uri.encode().build().toUri());
+    }
+}
@@ -0,0 +1,109 @@
+package com.order.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.order.model.PedidoExternoA;
+import com.order.model.Produto;
+
+/**
+ * Ingestão de pedidos do Externo A por um tópico Kafka, alternativa à
+ * importação via HTTP. Cada lote recebido do broker segue pelo mesmo fluxo de
+ * deduplicação e gravação do {@link PedidoService}, e os offsets só são
+ * confirmados após o commit do lote no banco. Para escalar a ingestão basta
+ * aumentar as partições do tópico e as instâncias da aplicação.
+ */
+@Component
+public class PedidoExternoAConsumer {
+
+    private final PedidoService pedidoService;
+
+    private final ObjectReader leitor;
+
+    public PedidoExternoAConsumer(PedidoService pedidoService, ObjectMapper objectMapper) {
+        this.pedidoService = pedidoService;
+        this.leitor = objectMapper.readerFor(PedidoExternoA.class);
+    }
+
+    /**
+     * Processa um lote de registros com pedidos em JSON. Ao encontrar um registro
+     * que não é um pedido válido, os registros anteriores são gravados e é
+     * lançada uma {@link BatchListenerFailedException} com o índice do inválido:
+     * o error handler confirma os offsets anteriores, envia apenas esse registro
+     * ao dead letter e reentrega os seguintes. Se a gravação do lote falhar, os
+     * pedidos são regravados um a um para localizar o registro que falha da
+     * mesma forma.
+     *
+     * @param registros      Os registros recebidos do broker
+     * @param acknowledgment Confirmação dos offsets do lote
+     */
+    @KafkaListener(topics = "${order.kafka.consumidor.topico:pedidos-externo-a}",
+            autoStartup = "${order.kafka.consumidor.habilitado:true}")
+    public void consumir(List<ConsumerRecord<String, String>> registros, Acknowledgment acknowledgment) {
+        List<PedidoExternoA> pedidos = new ArrayList<>(registros.size());
+        for (int i = 0; i < registros.size(); i++) {
+            ConsumerRecord<String, String> registro = registros.get(i);
+            try {
+                pedidos.add(lerPedido(registro));
+            } catch (IOException | IllegalArgumentException e) {
+                gravar(pedidos);
+                throw new BatchListenerFailedException("Registro inválido no offset " + registro.offset(), e, i);
+            }
+        }
+
+        gravar(pedidos);
+        acknowledgment.acknowledge();
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Grava os pedidos lidos até aqui, que correspondem aos primeiros registros
+     * do lote, na mesma ordem.
+     */
+    private void gravar(List<PedidoExternoA> pedidos) {
+        if (pedidos.isEmpty()) {
+            return;
+        }
+        try {
+            pedidoService.processarPedidosExternos(pedidos);
+        } catch (RuntimeException falhaLote) {
+            for (int i = 0; i < pedidos.size(); i++) {
+                try {
+                    pedidoService.processarPedidosExternos(List.of(pedidos.get(i)));
+                } catch (RuntimeException e) {
+                    throw new BatchListenerFailedException("Falha ao gravar o pedido "
+                            + pedidos.get(i).getNumeroPedido(), e, i);
+                }
+            }
+        }
+    }
+
+    private PedidoExternoA lerPedido(ConsumerRecord<String, String> registro) throws IOException {
+        if (registro.value() == null) {
+            throw new IllegalArgumentException("Registro sem conteúdo no offset " + registro.offset());
+        }
+        PedidoExternoA pedido = leitor.readValue(registro.value());
+        if (pedido.getNumeroPedido() == null) {
+            throw new IllegalArgumentException("Pedido sem número no offset " + registro.offset());
+        }
+        if (pedido.getProdutos() == null) {
+            throw new IllegalArgumentException("Pedido sem lista de produtos no offset " + registro.offset());
+        }
+        for (Produto produto : pedido.getProdutos()) {
+            if (produto == null || produto.getNome() == null || produto.getValor() == null) {
+                throw new IllegalArgumentException("Produto sem nome ou valor no offset " + registro.offset());
+            }
+        }
+        return pedido;
+    }
+}
@@ -1,12 +1,29 @@
 package com.order.service;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.order.model.ImportacaoJob;
 import com.order.model.PedidoExternoA;
+import com.order.service.ImportacaoMetricas.Etapa;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 @Service
 public class PedidoExternoAService {
@@ -17,6 +34,24 @@ public class PedidoExternoAService {
     @Autowired
     private RestTemplate restTemplate;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PedidoExternoAClient pedidoExternoAClient;
+
+    @Autowired
+    private ImportacaoMetricas importacaoMetricas;
+
+    @Autowired
+    private ImportacaoParalelaService importacaoParalelaService;
+
+    @Value("${order.externo-a.cliente.concorrencia:4}")
+    private int concorrencia = 4;
+
+    @Value("${order.importacao.tamanho-lote:1000}")
+    private int tamanhoLote = 1000;
+
     private static final String ORDER_EXTERNO_A_URL = System.getenv("ORDER_EXTERNO_A_URL");
 
     /**
@@ -38,12 +73,129 @@ public class PedidoExternoAService {
      * Importa os pedidos obtidos da API externa e os processa.
      * Esse método converte os dados recebidos da API externa para o formato
      * adequado e os envia para o serviço
-     * {@link PedidoService} para processamento e armazenamento no banco de dados.
+     * {@link ImportacaoParalelaService}, que os grava em paralelo, em lotes de
+     * tamanho fixo, cada um em sua própria transação.
+     *
+     * @param job O job que acompanha a importação
+     * @return A quantidade de pedidos lidos da API externa.
      */
-    public void importarPedidosExternoA() {
-        List<PedidoExternoA> pedidosExternos = obterPedidosExternos();
+    public int importarPedidosExternoA(ImportacaoJob job) {
+        List<PedidoExternoA> pedidosExternos = importacaoMetricas.medir(Etapa.FETCH, this::obterPedidosExternos);
         if (!pedidosExternos.isEmpty()) {
-            pedidoService.processarPedidosExternos(pedidosExternos);
+            importacaoParalelaService.importar(pedidosExternos, job);
+        }
+        return pedidosExternos.size();
+    }
+
+    /**
+     * Importa os pedidos da API externa em modo streaming.
+     * O corpo da resposta é lido elemento a elemento, sem materializar o array
+     * completo em memória, e os pedidos são enviados ao {@link PedidoService} em
+     * lotes de tamanho fixo.
+     *
+     * @param job O job que acompanha a importação
+     * @return A quantidade de pedidos lidos da API externa.
+     */
+    public int importarPedidosExternoAStreaming(ImportacaoJob job) {
+        Integer total = restTemplate.execute(ORDER_EXTERNO_A_URL, HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                response -> processarStream(response.getBody(), job));
+        return total != null ? total : 0;
+    }
+
+    /**
+     * Importa os pedidos da API externa com o cliente não bloqueante.
+     * As páginas de cada fonte são buscadas em paralelo, até o limite de
+     * concorrência configurado, e os pedidos seguem para o {@link PedidoService}
+     * em lotes, um lote por vez; a leitura da rede só avança conforme os lotes
+     * são gravados.
+     *
+     * @param urls    As URLs das fontes; quando vazia, usa ORDER_EXTERNO_A_URL
+     * @param paginas A quantidade de páginas a buscar em cada fonte
+     * @param job     O job que acompanha a importação
+     * @return Um Mono com a quantidade de pedidos lidos
+     */
+    public Mono<Integer> importarPedidosExternoAReativo(List<String> urls, int paginas, ImportacaoJob job) {
+        List<String> fontes = urls == null || urls.isEmpty() ? List.of(ORDER_EXTERNO_A_URL) : urls;
+        return importarEmLotes(Flux.fromIterable(fontes)
+                .flatMap(url -> pedidoExternoAClient.streamPaginas(url, paginas, concorrencia), concorrencia), job);
+    }
+
+    /**
+     * Grava os pedidos de um Flux em lotes de tamanho fixo, um lote por vez; o
+     * Flux só é lido conforme os lotes são gravados.
+     *
+     * @param pedidos Os pedidos a importar
+     * @param job     O job que acompanha a importação
+     * @return Um Mono com a quantidade de pedidos lidos
+     */
+    public Mono<Integer> importarEmLotes(Flux<PedidoExternoA> pedidos, ImportacaoJob job) {
+        return pedidos
+                .buffer(tamanhoLote)
+                .concatMap(lote -> Mono.fromCallable(() -> {
+                    processarLote(lote, job);
+                    return lote.size();
+                }).subscribeOn(Schedulers.boundedElastic()))
+                .reduce(0, Integer::sum);
+    }
+
+    /**
+     * Lê um array JSON de {@link PedidoExternoA} token a token e processa os
+     * pedidos em lotes de {@code tamanhoLote} elementos. O pico de memória fica
+     * limitado ao tamanho do lote, independente do tamanho do array.
+     *
+     * @param corpo O stream com o array JSON de pedidos
+     * @param job   O job que acompanha a importação
+     * @return A quantidade de pedidos lidos do stream
+     * @throws IOException Caso o conteúdo não seja um array JSON válido
+     */
+    int processarStream(InputStream corpo, ImportacaoJob job) throws IOException {
+        ObjectReader leitor = objectMapper.readerFor(PedidoExternoA.class);
+        int total = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(corpo)) {
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return 0;
+            }
+            if (token != JsonToken.START_ARRAY) {
+                throw new JsonParseException(parser, "A resposta da API externa não é um array JSON.");
+            }
+
+            List<PedidoExternoA> lote = new ArrayList<>(tamanhoLote);
+            long inicioLeitura = System.nanoTime();
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                lote.add(leitor.readValue(parser));
+                total++;
+
+                if (lote.size() >= tamanhoLote) {
+                    // A leitura do lote inclui a espera pela rede
+                    importacaoMetricas.registrar(Etapa.PARSE, System.nanoTime() - inicioLeitura);
+                    processarLote(lote, job);
+                    inicioLeitura = System.nanoTime();
+                    lote = new ArrayList<>(tamanhoLote);
+                }
+            }
+
+            if (!lote.isEmpty()) {
+                importacaoMetricas.registrar(Etapa.PARSE, System.nanoTime() - inicioLeitura);
+                processarLote(lote, job);
+            }
+        }
+        return total;
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Processa um lote em sua própria transação e registra o resultado no job.
+     * A falha de um lote é contabilizada e não interrompe os lotes seguintes.
+     */
+    private void processarLote(List<PedidoExternoA> lote, ImportacaoJob job) {
+        try {
+            job.registrar(pedidoService.processarPedidosExternos(lote));
+        } catch (RuntimeException e) {
+            job.registrarFalha(lote.size(), e);
         }
     }
 }
@@ -1,29 +1,53 @@
 package com.order.service;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import org.apache.kafka.clients.producer.KafkaProducer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.order.event.PedidosImportadosEvent;
 import com.order.model.Pedido;
+import com.order.model.PedidoEstatisticaHora;
 import com.order.model.PedidoExternoA;
 import com.order.model.PedidoProduto;
 import com.order.model.Produto;
+import com.order.model.dto.CursorPedido;
+import com.order.model.dto.PedidoDTO;
+import com.order.model.dto.ResultadoImportacao;
+import com.order.model.dto.VersaoPedido;
 import com.order.model.mapper.PedidoMapper;
+import com.order.repository.PedidoBatchRepository;
 import com.order.repository.PedidoRepository;
 import com.order.repository.ProdutoRepository;
-
-import jakarta.transaction.Transactional;
+import com.order.service.ImportacaoMetricas.Etapa;
+import com.order.service.ProdutoCatalogoService.ChaveProduto;
 
 @Service
 public class PedidoService {
 
+    private static final int LIMITE_CONSULTA_IN = 1000;
+
+    private static final long DESCONTO_MAXIMO_CENTESIMOS = 10_000;
+
     @Autowired
     private PedidoRepository pedidoRepository;
 
@@ -31,49 +55,203 @@ public class PedidoService {
     private ProdutoRepository produtoRepository;
 
     @Autowired
-    private KafkaProducer kafkaProducer;
+    private PedidoBatchRepository pedidoBatchRepository;
+
+    @Autowired
+    private ProdutoCatalogoService produtoCatalogoService;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private EstatisticaService estatisticaService;
+
+    @Autowired
+    private ImportacaoMetricas importacaoMetricas;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${order.importacao.persistencia-jdbc:true}")
+    private boolean persistenciaJdbc = true;
+
+    // Requisições concorrentes pela mesma página compartilham uma única consulta
+    private final SingleFlight<Pageable, Page<PedidoDTO>> paginas = new SingleFlight<>();
+
+    private final SingleFlight<PaginaApos, List<PedidoDTO>> paginasApos = new SingleFlight<>();
+
+    private final SingleFlight<PaginaCadastro, List<PedidoDTO>> paginasCadastro = new SingleFlight<>();
+
+    private record PaginaApos(Long aposId, int tamanho) {
+    }
+
+    private record PaginaCadastro(CursorPedido posicao, LocalDateTime ate, int tamanho) {
+    }
 
     /**
      * Retorna todos os pedidos, incluindo seus produtos associados.
+     * A consulta é feita em duas fases: primeiro os IDs da página e depois os
+     * pedidos desses IDs com seus produtos, evitando a paginação em memória.
+     * Os pedidos são projetados diretamente em {@link PedidoDTO}.
+     * Requisições simultâneas pela mesma página executam uma única consulta.
      * 
      * @return Lista de pedidos com seus produtos
      */
-    public Page<Pedido> findAll(Pageable pageable) {
-        return pedidoRepository.findAllPedidosComProdutos(pageable);
+    @Transactional(readOnly = true)
+    public Page<PedidoDTO> findAll(Pageable pageable) {
+        return paginas.executar(pageable, () -> {
+            Page<Long> ids = pedidoRepository.findPedidoIds(pageable);
+            return new PageImpl<>(buscarComProdutos(ids.getContent()), pageable, ids.getTotalElements());
+        });
+    }
+
+    /**
+     * Retorna os pedidos posteriores ao ID informado, incluindo seus produtos
+     * associados (paginação keyset).
+     * 
+     * @param aposId  O ID do último pedido da página anterior
+     * @param tamanho A quantidade máxima de pedidos
+     * @return Lista de pedidos com seus produtos, ordenada pelo ID
+     */
+    @Transactional(readOnly = true)
+    public List<PedidoDTO> findAllApos(Long aposId, int tamanho) {
+        return paginasApos.executar(new PaginaApos(aposId, tamanho),
+                () -> buscarComProdutos(pedidoRepository.findPedidoIdsApos(aposId, PageRequest.ofSize(tamanho))));
+    }
+
+    /**
+     * Retorna os pedidos cadastrados após a posição informada, incluindo seus
+     * produtos, ordenados por data de cadastro e ID (paginação keyset).
+     * 
+     * @param posicao O último pedido da página anterior, ou o início do período
+     *                com ID 0 na primeira página
+     * @param ate     O fim do período, exclusivo; {@code null} para não limitar
+     * @param tamanho A quantidade máxima de pedidos
+     * @return Lista de pedidos com seus produtos, ordenada por data de cadastro e ID
+     */
+    @Transactional(readOnly = true)
+    public List<PedidoDTO> findAllCadastradosApos(CursorPedido posicao, LocalDateTime ate, int tamanho) {
+        return paginasCadastro.executar(new PaginaCadastro(posicao, ate, tamanho), () -> {
+            Pageable pageable = PageRequest.ofSize(tamanho);
+            List<Long> ids = ate == null
+                    ? pedidoRepository.findPedidoIdsCadastradosApos(posicao.dataCadastro(), posicao.id(), pageable)
+                    : pedidoRepository.findPedidoIdsCadastradosAposAte(posicao.dataCadastro(), posicao.id(), ate,
+                            pageable);
+            return buscarComProdutos(ids);
+        });
+    }
+
+    /**
+     * Calcula a ETag de uma página de {@link #findAll}, consultando apenas os IDs
+     * e as versões dos pedidos, sem carregar os produtos nem serializar a página.
+     * 
+     * @param pageable A página
+     * @return A ETag da página, sem as aspas
+     */
+    @Transactional(readOnly = true)
+    public String etagFindAll(Pageable pageable) {
+        Page<Long> ids = pedidoRepository.findPedidoIds(pageable);
+        return VersaoPedido.etagPagina(buscarVersoes(ids.getContent()), ids.getTotalElements());
+    }
+
+    /**
+     * Calcula a ETag de uma página de {@link #findAllApos}, consultando apenas os
+     * IDs e as versões dos pedidos.
+     * 
+     * @param aposId  O ID do último pedido da página anterior
+     * @param tamanho A quantidade máxima de pedidos
+     * @return A ETag da página, sem as aspas
+     */
+    @Transactional(readOnly = true)
+    public String etagFindAllApos(Long aposId, int tamanho) {
+        List<Long> ids = pedidoRepository.findPedidoIdsApos(aposId, PageRequest.ofSize(tamanho));
+        return VersaoPedido.etagPagina(buscarVersoes(ids), -1);
     }
 
     /**
      * Processa uma lista de pedidos externos, validando e criando novos pedidos.
+     * Os produtos são resolvidos pela chave natural no
+     * {@link ProdutoCatalogoService}, e apenas os nunca vistos são inseridos.
+     * Por padrão os pedidos são gravados em lote via JDBC
+     * ({@link PedidoBatchRepository}); com
+     * {@code order.importacao.persistencia-jdbc=false} é usado o caminho JPA,
+     * pedido a pedido.
+     * Um evento por pedido é gravado no outbox e os totais por hora são
+     * atualizados no {@link EstatisticaService}, na mesma transação.
+     * Cada chamada é uma transação; importações grandes devem ser enviadas em lotes.
      * 
      * @param pedidosExternos Lista de pedidos externos a serem processados
+     * @return As contagens de pedidos recebidos, duplicados e inseridos
      */
     @Transactional
-    @Async
-    public void processarPedidosExternos(List<PedidoExternoA> pedidosExternos) {
-        pedidosExternos.forEach(pedidoExternoA -> {
-
-            if (!existePedidoByNumero(pedidoExternoA.getNumeroPedido())) {
-                Pedido pedido = PedidoMapper.fromPedidoExternoA(pedidoExternoA);
+    public ResultadoImportacao processarPedidosExternos(List<PedidoExternoA> pedidosExternos) {
+        return processarPedidosExternos(pedidosExternos, null);
+    }
 
-                List<Produto> produtosSalvos = produtoRepository.saveAll(pedidoExternoA.getProdutos());
+    /**
+     * Processa uma lista de pedidos externos como
+     * {@link #processarPedidosExternos(List)}, mas, quando {@code totaisHora} é
+     * informado, os totais por hora dos pedidos gravados são somados ao mapa em
+     * vez de gravados na transação. Cabe ao chamador gravá-los com
+     * {@link EstatisticaService#registrarTotais(Map)} após o commit.
+     * 
+     * @param pedidosExternos Lista de pedidos externos a serem processados
+     * @param totaisHora      Os totais por hora a acumular, ou null para gravá-los
+     *                        na transação
+     * @return As contagens de pedidos recebidos, duplicados e inseridos
+     */
+    @Transactional
+    public ResultadoImportacao processarPedidosExternos(List<PedidoExternoA> pedidosExternos,
+            Map<LocalDateTime, PedidoEstatisticaHora> totaisHora) {
+        List<PedidoExternoA> pedidosNovos = importacaoMetricas.medir(Etapa.DEDUP,
+                () -> filtrarPedidosNovos(pedidosExternos));
+        List<Pedido> pedidos = pedidosNovos.isEmpty() ? List.of()
+                : importacaoMetricas.medir(Etapa.PERSIST, () -> persistir(pedidosNovos, totaisHora));
 
-                List<PedidoProduto> pedidoProdutos = produtosSalvos.stream()
-                        .map(produto -> criarPedidoProduto(pedido, produto, 1))
-                        .collect(Collectors.toList());
+        if (!pedidos.isEmpty()) {
+            // Os eventos são publicados no Kafka pelo relay do outbox, após o commit
+            importacaoMetricas.medir(Etapa.OUTBOX, () -> {
+                outboxService.registrarPedidosImportados(pedidos);
+                eventPublisher.publishEvent(new PedidosImportadosEvent(pedidos));
+            });
+        }
 
-                pedido.setPedidoProdutos(pedidoProdutos);
-                pedido.setValor(calcularValorTotal(pedidoProdutos));
+        ResultadoImportacao resultado = new ResultadoImportacao(pedidosExternos.size(),
+                pedidosExternos.size() - pedidos.size(), pedidos.size());
+        importacaoMetricas.registrarAposCommit(resultado);
+        return resultado;
+    }
 
-                save(pedido);
+    /**
+     * Remove de um lote de pedidos externos os números repetidos dentro do
+     * próprio lote e os números que já existem no banco de dados.
+     * A verificação no banco é feita em blocos com uma única consulta por bloco,
+     * em vez de uma consulta por pedido.
+     * 
+     * @param pedidosExternos Lista de pedidos externos recebidos
+     * @return Lista com apenas os pedidos ainda não cadastrados, na ordem de chegada
+     */
+    public List<PedidoExternoA> filtrarPedidosNovos(List<PedidoExternoA> pedidosExternos) {
+        Map<String, PedidoExternoA> pedidosUnicos = new LinkedHashMap<>();
+        for (PedidoExternoA pedidoExternoA : pedidosExternos) {
+            if (pedidoExternoA.getNumeroPedido() != null) {
+                pedidosUnicos.putIfAbsent(pedidoExternoA.getNumeroPedido(), pedidoExternoA);
+            }
+        }
 
-                System.out.println("Importando pedidos do Externo A...");
+        if (pedidosUnicos.isEmpty()) {
+            return List.of();
+        }
 
-                // Envia uma mensagem para o Kafka após a importação
-                // kafkaProducer.sendMensagemImportacao("Pedidos do Externo A importados com
-                // sucesso!");
+        List<String> numeros = new ArrayList<>(pedidosUnicos.keySet());
+        Set<String> existentes = new HashSet<>();
+        for (int inicio = 0; inicio < numeros.size(); inicio += LIMITE_CONSULTA_IN) {
+            int fim = Math.min(inicio + LIMITE_CONSULTA_IN, numeros.size());
+            existentes.addAll(pedidoRepository.findNumerosPedidoExistentes(numeros.subList(inicio, fim)));
+        }
 
-            }
-        });
+        pedidosUnicos.keySet().removeAll(existentes);
+        return new ArrayList<>(pedidosUnicos.values());
     }
 
     /**
@@ -102,6 +280,7 @@ public class PedidoService {
      * @param id O ID do pedido
      * @return O pedido correspondente ao ID, se existir
      */
+    @Transactional(readOnly = true)
     public Optional<Pedido> findById(Long id) {
         return pedidoRepository.findById(id);
     }
@@ -112,12 +291,137 @@ public class PedidoService {
      * @param numeroPedido O número do pedido
      * @return O pedido correspondente ao número, se existir
      */
+    @Transactional(readOnly = true)
     public Optional<Pedido> findByNumeroPedido(String numeroPedido) {
         return pedidoRepository.findByNumeroPedido(numeroPedido);
     }
 
     // Métodos Auxiliares
 
+    /**
+     * Resolve os produtos, cria e grava os pedidos novos. Produtos sem nome ou
+     * sem valor não têm chave natural no catálogo e são ignorados.
+     * 
+     * @param pedidosNovos Pedidos ainda não cadastrados
+     * @param totaisHora   Os totais por hora a acumular, ou null para gravá-los
+     * @return Os pedidos efetivamente gravados
+     */
+    private List<Pedido> persistir(List<PedidoExternoA> pedidosNovos,
+            Map<LocalDateTime, PedidoEstatisticaHora> totaisHora) {
+        Map<ChaveProduto, Produto> produtos = produtoCatalogoService.resolverProdutos(pedidosNovos.stream()
+                .map(PedidoExternoA::getProdutos)
+                .filter(Objects::nonNull)
+                .flatMap(List::stream)
+                .filter(PedidoService::possuiChaveNatural)
+                .collect(Collectors.toList()));
+
+        List<Pedido> pedidos = pedidosNovos.stream()
+                .map(pedidoExternoA -> criarPedido(pedidoExternoA, produtos))
+                .collect(Collectors.toList());
+
+        List<Pedido> inseridos;
+        if (persistenciaJdbc) {
+            // Números gravados por outra transação desde a verificação são ignorados
+            inseridos = pedidoBatchRepository.inserirPedidos(pedidos);
+        } else {
+            // Um número duplicado viola a restrição de unicidade e desfaz o lote inteiro, com os produtos
+            List<Produto> produtosNovos = pedidos.stream()
+                    .flatMap(pedido -> pedido.getPedidoProdutos().stream())
+                    .map(PedidoProduto::getProduto)
+                    .filter(produto -> produto.getId() == null)
+                    .distinct()
+                    .collect(Collectors.toList());
+            if (!produtosNovos.isEmpty()) {
+                produtoRepository.saveAll(produtosNovos);
+            }
+            pedidos.forEach(this::save);
+            inseridos = pedidos;
+        }
+
+        if (totaisHora != null) {
+            estatisticaService.somar(totaisHora, inseridos);
+        } else if (!inseridos.isEmpty()) {
+            estatisticaService.registrarPedidosImportados(inseridos);
+        }
+        return inseridos;
+    }
+
+    /**
+     * Carrega os pedidos dos IDs informados com seus produtos em uma única
+     * consulta de projeção, preservando a ordem dos IDs.
+     * 
+     * @param ids Os IDs dos pedidos
+     * @return Os pedidos na mesma ordem dos IDs
+     */
+    private List<PedidoDTO> buscarComProdutos(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, PedidoDTO> pedidos = new HashMap<>();
+        for (PedidoDTO pedido : PedidoMapper.toDTOs(pedidoRepository.findLinhasByIdIn(ids))) {
+            pedidos.put(pedido.id(), pedido);
+        }
+
+        List<PedidoDTO> ordenados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            PedidoDTO pedido = pedidos.get(id);
+            if (pedido != null) {
+                ordenados.add(pedido);
+            }
+        }
+        return ordenados;
+    }
+
+    /**
+     * Carrega as versões dos pedidos dos IDs informados, preservando a ordem dos IDs.
+     * 
+     * @param ids Os IDs dos pedidos
+     * @return As versões na mesma ordem dos IDs
+     */
+    private List<VersaoPedido> buscarVersoes(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, VersaoPedido> versoes = new HashMap<>();
+        for (VersaoPedido versao : pedidoRepository.findVersoesByIdIn(ids)) {
+            versoes.put(versao.id(), versao);
+        }
+
+        List<VersaoPedido> ordenadas = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            VersaoPedido versao = versoes.get(id);
+            if (versao != null) {
+                ordenadas.add(versao);
+            }
+        }
+        return ordenadas;
+    }
+
+    /**
+     * Cria um novo pedido a partir de um pedido externo, associando seus produtos
+     * já resolvidos no catálogo e calculando o valor total.
+     * 
+     * @param pedidoExternoA O pedido externo
+     * @param produtos       Os produtos canônicos, por chave natural
+     * @return O pedido criado, ainda não persistido
+     */
+    private Pedido criarPedido(PedidoExternoA pedidoExternoA, Map<ChaveProduto, Produto> produtos) {
+        Pedido pedido = PedidoMapper.fromPedidoExternoA(pedidoExternoA);
+
+        List<Produto> produtosExternos = pedidoExternoA.getProdutos() != null ? pedidoExternoA.getProdutos() : List.of();
+        List<PedidoProduto> pedidoProdutos = new ArrayList<>(produtosExternos.size());
+        for (Produto produto : produtosExternos) {
+            if (!possuiChaveNatural(produto)) {
+                continue;
+            }
+            pedidoProdutos.add(criarPedidoProduto(pedido, produtos.get(ChaveProduto.de(produto)), 1));
+        }
+
+        pedido.setPedidoProdutos(pedidoProdutos);
+        pedido.setValor(calcularValorTotal(pedidoProdutos, pedido.getDescontoPercentual()));
+        return pedido;
+    }
+
     /**
      * Cria um novo pedido produto associado ao pedido e produto fornecidos.
      * 
@@ -135,15 +439,41 @@ public class PedidoService {
     }
 
     /**
-     * Calcula o valor total de um pedido a partir dos produtos associados.
+     * Calcula o valor total de um pedido a partir dos produtos associados,
+     * aplicando o desconto percentual. A soma é feita em centavos, em um laço
+     * com aritmética de {@code long}, sem alocações por item; o desconto é
+     * arredondado para o centavo mais próximo (meio centavo para cima).
+     * Visível no pacote para o módulo de benchmarks.
      * 
-     * @param pedidoProdutos A lista de produtos associados ao pedido
-     * @return O valor total do pedido
+     * @param pedidoProdutos     A lista de produtos associados ao pedido
+     * @param descontoPercentual O desconto percentual, limitado entre 0 e 100; nulo para nenhum
+     * @return O valor total do pedido, com duas casas decimais
+     */
+    static BigDecimal calcularValorTotal(List<PedidoProduto> pedidoProdutos, BigDecimal descontoPercentual) {
+        long totalCentavos = 0;
+        for (int i = 0, n = pedidoProdutos.size(); i < n; i++) {
+            PedidoProduto pedidoProduto = pedidoProdutos.get(i);
+            totalCentavos = Math.addExact(totalCentavos,
+                    Math.multiplyExact(pedidoProduto.getProduto().getValorCentavos(), pedidoProduto.getQuantidade()));
+        }
+        return BigDecimal.valueOf(totalCentavos - calcularDescontoCentavos(totalCentavos, descontoPercentual), 2);
+    }
+
+    private static boolean possuiChaveNatural(Produto produto) {
+        return produto != null && produto.getNome() != null && produto.getValor() != null;
+    }
+
+    /**
+     * Calcula o desconto em centavos. O percentual é convertido para centésimos
+     * de ponto percentual (5,25% = 525), o que mantém o cálculo exato em {@code long}.
      */
-    private Double calcularValorTotal(List<PedidoProduto> pedidoProdutos) {
-        double valorTotal = pedidoProdutos.stream()
-                .mapToDouble(p -> p.getProduto().getValor() * p.getQuantidade())
-                .sum();
-        return valorTotal;
+    static long calcularDescontoCentavos(long totalCentavos, BigDecimal descontoPercentual) {
+        if (descontoPercentual == null || descontoPercentual.signum() <= 0) {
+            return 0;
+        }
+        long centesimos = Math.min(descontoPercentual.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact(),
+                DESCONTO_MAXIMO_CENTESIMOS);
+        return Math.addExact(Math.multiplyExact(totalCentavos, centesimos), DESCONTO_MAXIMO_CENTESIMOS / 2)
+                / DESCONTO_MAXIMO_CENTESIMOS;
     }
 }
@@ -0,0 +1,181 @@
+package com.order.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.order.model.Produto;
+import com.order.repository.ProdutoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Resolve a identidade dos produtos importados pela chave natural (nome e valor),
+ * para que um mesmo produto seja cadastrado uma única vez.
+ * As identidades já conhecidas ficam em um cache limitado em memória (Caffeine,
+ * com política W-TinyLFU), cujas estatísticas são publicadas no Micrometer.
+ */
+@Service
+public class ProdutoCatalogoService {
+
+    private static final int LIMITE_CONSULTA_IN = 1000;
+
+    private final ProdutoRepository produtoRepository;
+
+    private final Cache<ChaveProduto, Long> identidades;
+
+    public ProdutoCatalogoService(ProdutoRepository produtoRepository, MeterRegistry meterRegistry,
+            @Value("${order.catalogo-produtos.tamanho-maximo:100000}") long tamanhoMaximo) {
+        this.produtoRepository = produtoRepository;
+        this.identidades = Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identidades, "produtos");
+    }
+
+    /**
+     * Chave natural de um produto. O valor chega já arredondado para centavos
+     * pelo {@link Produto#setValor}, para que 10.0 e 10.00 sejam a mesma chave.
+     */
+    public record ChaveProduto(String nome, BigDecimal valor) {
+
+        public static ChaveProduto de(Produto produto) {
+            return new ChaveProduto(produto.getNome(), produto.getValor());
+        }
+    }
+
+    /**
+     * Resolve os produtos recebidos para uma instância canônica por chave natural.
+     * Produtos já cadastrados retornam com o ID preenchido; produtos nunca vistos
+     * retornam sem ID, uma única instância por chave, e devem ser inseridos na
+     * transação corrente; como a chave natural é única no banco, a inserção deve
+     * tolerar um produto cadastrado por outra transação desde a resolução
+     * ({@code ON CONFLICT}). As novas identidades só entram no cache após o commit.
+     *
+     * @param produtos Produtos recebidos na importação
+     * @return Mapa da chave natural para o produto canônico
+     */
+    public Map<ChaveProduto, Produto> resolverProdutos(Collection<Produto> produtos) {
+        Map<ChaveProduto, Produto> resolvidos = new HashMap<>();
+        Set<ChaveProduto> faltantes = new LinkedHashSet<>();
+
+        for (Produto produto : produtos) {
+            ChaveProduto chave = ChaveProduto.de(produto);
+            if (resolvidos.containsKey(chave) || faltantes.contains(chave)) {
+                continue;
+            }
+            Long id = identidades.getIfPresent(chave);
+            if (id != null) {
+                resolvidos.put(chave, criarProduto(id, chave));
+            } else {
+                faltantes.add(chave);
+            }
+        }
+
+        if (faltantes.isEmpty()) {
+            return resolvidos;
+        }
+
+        buscarCadastrados(faltantes).forEach((chave, produto) -> {
+            resolvidos.put(chave, produto);
+            identidades.put(chave, produto.getId());
+            faltantes.remove(chave);
+        });
+
+        List<Produto> novos = new ArrayList<>(faltantes.size());
+        for (ChaveProduto chave : faltantes) {
+            Produto produto = criarProduto(null, chave);
+            resolvidos.put(chave, produto);
+            novos.add(produto);
+        }
+        registrarAposCommit(novos);
+
+        return resolvidos;
+    }
+
+    /**
+     * Retorna as estatísticas de acerto do cache de identidades.
+     *
+     * @return As estatísticas do cache
+     */
+    public CacheStats estatisticas() {
+        return identidades.stats();
+    }
+
+    // Métodos Auxiliares
+
+    /**
+     * Busca no banco os produtos já cadastrados para as chaves informadas.
+     */
+    private Map<ChaveProduto, Produto> buscarCadastrados(Set<ChaveProduto> chaves) {
+        List<String> nomes = chaves.stream()
+                .map(ChaveProduto::nome)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        Map<ChaveProduto, Produto> cadastrados = new HashMap<>();
+        for (int inicio = 0; inicio < nomes.size(); inicio += LIMITE_CONSULTA_IN) {
+            int fim = Math.min(inicio + LIMITE_CONSULTA_IN, nomes.size());
+            for (Produto produto : produtoRepository.findByNomeInOrderById(nomes.subList(inicio, fim))) {
+                ChaveProduto chave = ChaveProduto.de(produto);
+                if (chaves.contains(chave)) {
+                    cadastrados.putIfAbsent(chave, produto);
+                }
+            }
+        }
+        return cadastrados;
+    }
+
+    /**
+     * Adiciona ao cache os produtos inseridos somente após o commit da transação,
+     * para que um rollback não deixe IDs inexistentes no cache.
+     */
+    private void registrarAposCommit(List<Produto> novos) {
+        if (novos.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            adicionarAoCache(novos);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                adicionarAoCache(novos);
+            }
+        });
+    }
+
+    private void adicionarAoCache(List<Produto> produtos) {
+        for (Produto produto : produtos) {
+            if (produto.getId() != null) {
+                identidades.put(ChaveProduto.de(produto), produto.getId());
+            }
+        }
+    }
+
+    private Produto criarProduto(Long id, ChaveProduto chave) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome(chave.nome());
+        produto.setValor(chave.valor());
+        return produto;
+    }
+}
@@ -0,0 +1,64 @@
+package com.order.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa chamadas concorrentes com a mesma chave em uma única execução: a
+ * primeira chamada executa a consulta e as que chegam enquanto ela está em
+ * andamento recebem o mesmo resultado (ou a mesma exceção). Nada é guardado
+ * após a conclusão; chamadas posteriores executam de novo.
+ * O resultado é compartilhado entre as chamadas e deve ser imutável.
+ *
+ * @param <K> O tipo da chave da consulta
+ * @param <V> O tipo do resultado
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> emAndamento = new ConcurrentHashMap<>();
+
+    /**
+     * Executa a consulta, ou aguarda a execução em andamento com a mesma chave.
+     *
+     * @param chave    A chave que identifica a consulta
+     * @param consulta A consulta a executar
+     * @return O resultado da consulta
+     */
+    public V executar(K chave, Supplier<V> consulta) {
+        CompletableFuture<V> execucao = new CompletableFuture<>();
+        CompletableFuture<V> existente = emAndamento.putIfAbsent(chave, execucao);
+        if (existente != null) {
+            return aguardar(existente);
+        }
+
+        try {
+            V resultado = consulta.get();
+            execucao.complete(resultado);
+            return resultado;
+        } catch (RuntimeException | Error e) {
+            execucao.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, execucao);
+        }
+    }
+
+    // Métodos Auxiliares
+
+    private V aguardar(CompletableFuture<V> execucao) {
+        try {
+            return execucao.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (e.getCause() instanceof Error erro) {
+                throw erro;
+            }
+            throw e;
+        }
+    }
+}
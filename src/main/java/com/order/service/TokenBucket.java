@@ -0,0 +1,50 @@
+package com.order.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sem bloqueio, no formato GCRA: em vez de contar tokens, guarda
+ * o instante teórico em que o balde volta a ficar cheio, em um único
+ * {@link AtomicLong} atualizado por CAS. Cada requisição consome o tempo de
+ * reposição de um token; a capacidade define quanto esse instante pode
+ * avançar além do relógio (a rajada permitida).
+ */
+class TokenBucket {
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    private final AtomicLong instanteTeorico = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * @param intervaloNanos  O tempo de reposição de um token
+     * @param toleranciaNanos O avanço máximo além do relógio: o intervalo
+     *                        multiplicado pela capacidade menos um
+     */
+    TokenBucket(long intervaloNanos, long toleranciaNanos) {
+        this.intervaloNanos = intervaloNanos;
+        this.toleranciaNanos = toleranciaNanos;
+    }
+
+    /**
+     * Tenta consumir um token.
+     *
+     * @param agoraNanos O instante atual, de {@link System#nanoTime()}
+     * @return 0 se o token foi consumido; caso contrário, quanto tempo falta
+     *         para haver um token disponível
+     */
+    long consumir(long agoraNanos) {
+        while (true) {
+            long atual = instanteTeorico.get();
+            long inicio = Math.max(atual, agoraNanos);
+            long espera = inicio - agoraNanos - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (instanteTeorico.compareAndSet(atual, inicio + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+}
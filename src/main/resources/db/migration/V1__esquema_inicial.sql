@@ -0,0 +1,50 @@
+-- Esquema inicial. Idempotente, para bancos já criados pelo ddl-auto=update:
+-- os objetos existentes são mantidos e as colunas monetárias passam a numeric.
+
+CREATE SEQUENCE IF NOT EXISTS pedido_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS produto_sequence START WITH 1 INCREMENT BY 1;
+CREATE SEQUENCE IF NOT EXISTS pedidoproduto_sequence START WITH 1 INCREMENT BY 1;
+
+CREATE TABLE IF NOT EXISTS pedido (
+    id                  bigint        NOT NULL PRIMARY KEY,
+    numero_pedido       varchar(255)  NOT NULL,
+    valor               numeric(19,2),
+    desconto_percentual numeric(5,2),
+    data_cadastro       timestamp(6),
+    CONSTRAINT uk_pedido_numero_pedido UNIQUE (numero_pedido)
+);
+
+CREATE TABLE IF NOT EXISTS produto (
+    id    bigint        NOT NULL PRIMARY KEY,
+    nome  varchar(255),
+    valor numeric(19,2)
+);
+
+CREATE TABLE IF NOT EXISTS pedido_produto (
+    id         bigint  NOT NULL PRIMARY KEY,
+    pedido_id  bigint  NOT NULL REFERENCES pedido (id),
+    produto_id bigint  NOT NULL REFERENCES produto (id),
+    quantidade integer NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_evento (
+    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    topico     varchar(255)   NOT NULL,
+    chave      varchar(255),
+    payload    text           NOT NULL,
+    criado_em  timestamptz(6) NOT NULL,
+    enviado_em timestamptz(6)
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_evento_pendente ON outbox_evento (enviado_em, id);
+
+CREATE TABLE IF NOT EXISTS pedido_estatistica_hora (
+    hora        timestamp(6)  NOT NULL PRIMARY KEY,
+    quantidade  bigint        NOT NULL,
+    valor_total numeric(19,2) NOT NULL
+);
+
+-- Bancos criados antes da troca de Double por BigDecimal têm colunas float8
+ALTER TABLE pedido ALTER COLUMN valor TYPE numeric(19,2) USING round(valor::numeric, 2);
+ALTER TABLE pedido ALTER COLUMN desconto_percentual TYPE numeric(5,2) USING round(desconto_percentual::numeric, 2);
+ALTER TABLE produto ALTER COLUMN valor TYPE numeric(19,2) USING round(valor::numeric, 2);
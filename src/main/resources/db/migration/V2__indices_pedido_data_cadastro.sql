@@ -0,0 +1,11 @@
+-- Índices das consultas por período de cadastro, criados sem bloquear as
+-- gravações na tabela (CONCURRENTLY não pode rodar dentro de uma transação).
+
+-- Paginação keyset por (data_cadastro, id): a página parte do cursor no índice
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedido_data_cadastro_id ON pedido (data_cadastro, id);
+
+-- A tabela recebe pedidos em ordem de cadastro, então data_cadastro acompanha a
+-- ordem física das linhas. O BRIN ocupa poucas páginas e atende as varreduras
+-- de intervalos longos (agregações e exportações) sem o custo de um B-tree.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedido_data_cadastro_brin ON pedido
+    USING brin (data_cadastro) WITH (pages_per_range = 32);
@@ -0,0 +1,3 @@
+-- Itens por pedido, na ordem do ID: a exportação e as consultas de pedidos com
+-- seus itens percorrem a junção pelo índice, sem ordenar a tabela inteira.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_pedido_produto_pedido_id ON pedido_produto (pedido_id, id);
@@ -0,0 +1,7 @@
+-- Baldes do limite de requisições compartilhados entre as instâncias.
+-- UNLOGGED: o estado é descartável, não precisa sobreviver a uma queda do
+-- banco nem ser replicado, e as atualizações por requisição não geram WAL.
+CREATE UNLOGGED TABLE IF NOT EXISTS limite_requisicao (
+    chave            varchar(255) NOT NULL PRIMARY KEY,
+    instante_teorico bigint       NOT NULL
+);
@@ -0,0 +1,5 @@
+-- Versão e data de atualização dos pedidos, para as requisições condicionais.
+-- Nenhuma das colunas reescreve a tabela: o DEFAULT constante é guardado no
+-- catálogo, e os pedidos existentes ficam sem data de atualização (vale a de cadastro).
+ALTER TABLE pedido ADD COLUMN IF NOT EXISTS versao bigint NOT NULL DEFAULT 0;
+ALTER TABLE pedido ADD COLUMN IF NOT EXISTS data_atualizacao timestamp(6);
@@ -0,0 +1,10 @@
+-- Estado da importação agendada de cada fonte do Externo A, compartilhado
+-- entre as instâncias: a posição (marca d'água) da última importação concluída
+-- e o instante da próxima execução.
+CREATE TABLE IF NOT EXISTS importacao_fonte (
+    nome             varchar(100)  NOT NULL PRIMARY KEY,
+    posicao          varchar(255),
+    proxima_execucao timestamptz   NOT NULL DEFAULT now(),
+    ultima_execucao  timestamptz,
+    ultimo_erro      varchar(1000)
+);
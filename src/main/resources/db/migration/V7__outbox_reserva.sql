@@ -0,0 +1,8 @@
+-- Reserva dos eventos do outbox por prazo: o relay marca o lote em uma
+-- transação curta e publica no Kafka sem manter bloqueios no banco; eventos
+-- cuja reserva venceu voltam a ser elegíveis.
+ALTER TABLE outbox_evento ADD COLUMN IF NOT EXISTS reservado_ate timestamptz(6);
+
+-- Eventos pendentes por chave, para não reservar um evento enquanto um evento
+-- anterior da mesma chave está reservado por outro relay.
+CREATE INDEX IF NOT EXISTS idx_outbox_evento_pendente_chave ON outbox_evento (chave, id) WHERE enviado_em IS NULL;
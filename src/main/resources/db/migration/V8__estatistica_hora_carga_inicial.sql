@@ -0,0 +1,12 @@
+-- Carga inicial da tabela de estatísticas a partir dos pedidos já cadastrados,
+-- apenas quando ela ainda estiver vazia. O bloqueio impede que uma importação
+-- de outra instância grave totais durante a carga; as que já tiverem gravado
+-- tornam a tabela não vazia, e a carga não é feita.
+LOCK TABLE pedido_estatistica_hora IN EXCLUSIVE MODE;
+
+INSERT INTO pedido_estatistica_hora (hora, quantidade, valor_total)
+SELECT date_trunc('hour', data_cadastro), count(*), coalesce(sum(valor), 0)
+FROM pedido
+WHERE data_cadastro IS NOT NULL AND NOT EXISTS (SELECT 1 FROM pedido_estatistica_hora)
+GROUP BY 1
+ON CONFLICT (hora) DO NOTHING;
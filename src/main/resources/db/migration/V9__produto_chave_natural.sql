@@ -0,0 +1,18 @@
+-- Chave natural do catálogo de produtos: um produto por (nome, valor), para que
+-- importações concorrentes não cadastrem o mesmo produto duas vezes. Os
+-- cadastros repetidos existentes são unificados no de menor ID antes da criação
+-- do índice; o bloqueio impede novas inserções durante a migração.
+LOCK TABLE produto IN SHARE ROW EXCLUSIVE MODE;
+
+CREATE TEMPORARY TABLE produto_repetido ON COMMIT DROP AS
+SELECT id, manter
+FROM (SELECT id, min(id) OVER (PARTITION BY nome, valor) AS manter FROM produto) p
+WHERE id <> manter;
+
+UPDATE pedido_produto pp SET produto_id = r.manter
+FROM produto_repetido r
+WHERE pp.produto_id = r.id;
+
+DELETE FROM produto p USING produto_repetido r WHERE p.id = r.id;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uk_produto_nome_valor ON produto (nome, valor);
@@ -0,0 +1,87 @@
+package com.order.controller;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+/**
+ * Teste de carga que mede como a aplicação escala com o número de conexões
+ * simultâneas. Deve ser executado contra uma instância em execução, uma vez com
+ * threads de plataforma e outra com threads virtuais, comparando os resultados:
+ *
+ * ORDER_VIRTUAL_THREADS=false java -jar target/order-0.0.1-SNAPSHOT.jar --order.ratelimit.habilitado=false
+ * mvn test -Dtest=CargaConcorrenciaTest -Dorder.carga.url=http://localhost:8080/api/externo-b/pedidos?pagina=0&tamanho=20
+ *
+ * ORDER_VIRTUAL_THREADS=true java -jar target/order-0.0.1-SNAPSHOT.jar --order.ratelimit.habilitado=false (build com -Pjava21)
+ * mvn test -Dtest=CargaConcorrenciaTest -Dorder.carga.url=...
+ */
+@Tag("carga")
+@EnabledIfSystemProperty(named = "order.carga.url", matches = ".+")
+class CargaConcorrenciaTest {
+
+    private static final int[] CONEXOES_SIMULTANEAS = { 50, 200, 1000, 5000 };
+    private static final int REQUISICOES_POR_CONEXAO = 10;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+
+    @Test
+    void medirEscalaPorConexoesSimultaneas() {
+        URI uri = URI.create(System.getProperty("order.carga.url"));
+
+        System.out.printf("%10s %12s %10s %10s %8s%n", "conexoes", "req/s", "p50 (ms)", "p99 (ms)", "erros");
+        for (int conexoes : CONEXOES_SIMULTANEAS) {
+            executarRodada(uri, conexoes);
+        }
+    }
+
+    private void executarRodada(URI uri, int conexoes) {
+        HttpRequest requisicao = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).GET().build();
+        long[] latencias = new long[conexoes * REQUISICOES_POR_CONEXAO];
+        AtomicInteger indice = new AtomicInteger();
+        AtomicInteger erros = new AtomicInteger();
+
+        long inicio = System.nanoTime();
+        List<CompletableFuture<Void>> conexoesAtivas = new ArrayList<>(conexoes);
+        for (int i = 0; i < conexoes; i++) {
+            CompletableFuture<Void> conexao = CompletableFuture.completedFuture(null);
+            for (int j = 0; j < REQUISICOES_POR_CONEXAO; j++) {
+                conexao = conexao.thenCompose(ignorado -> {
+                    long inicioRequisicao = System.nanoTime();
+                    return httpClient.sendAsync(requisicao, HttpResponse.BodyHandlers.discarding())
+                            .<Void>handle((resposta, erro) -> {
+                                latencias[indice.getAndIncrement()] = System.nanoTime() - inicioRequisicao;
+                                if (erro != null || resposta.statusCode() >= 400) {
+                                    erros.incrementAndGet();
+                                }
+                                return null;
+                            });
+                });
+            }
+            conexoesAtivas.add(conexao);
+        }
+        CompletableFuture.allOf(conexoesAtivas.toArray(new CompletableFuture[0])).join();
+        double segundos = (System.nanoTime() - inicio) / 1_000_000_000.0;
+
+        Arrays.sort(latencias);
+        System.out.printf("%10d %12.0f %10.1f %10.1f %8d%n", conexoes, latencias.length / segundos,
+                percentil(latencias, 0.50), percentil(latencias, 0.99), erros.get());
+    }
+
+    private double percentil(long[] latenciasOrdenadas, double percentil) {
+        int posicao = (int) Math.ceil(percentil * latenciasOrdenadas.length) - 1;
+        return latenciasOrdenadas[Math.max(posicao, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,84 @@
+package com.order.controller;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.order.service.LimiteRequisicoesService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LimiteRequisicoesInterceptorTest {
+
+    @Mock
+    private LimiteRequisicoesService limiteRequisicoesService;
+
+    private LimiteRequisicoesInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(limiteRequisicoesService.consumir(anyString())).thenReturn(Duration.ZERO);
+        interceptor = new LimiteRequisicoesInterceptor(limiteRequisicoesService, new SimpleMeterRegistry(),
+                List.of("chave-parceiro"));
+    }
+
+    /**
+     * Testa uma chave de API configurada.
+     * Verifica se o cliente é identificado pela chave, e não pelo IP.
+     */
+    @Test
+    void testPreHandle_ChaveConhecida() {
+        MockHttpServletRequest request = requisicao("10.0.0.1");
+        request.addHeader("X-API-Key", "chave-parceiro");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        verify(limiteRequisicoesService).consumir(startsWith("chave:"));
+    }
+
+    /**
+     * Testa uma chave de API desconhecida.
+     * Verifica se a chave é ignorada e o cliente é limitado pelo IP, para que chaves
+     * inventadas não criem baldes novos.
+     */
+    @Test
+    void testPreHandle_ChaveDesconhecidaUsaIp() {
+        MockHttpServletRequest request = requisicao("10.0.0.1");
+        request.addHeader("X-API-Key", "chave-inventada");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        verify(limiteRequisicoesService).consumir("ip:10.0.0.1");
+    }
+
+    /**
+     * Testa o X-Forwarded-For enviado pelo cliente.
+     * Verifica se o cabeçalho não substitui o IP da conexão, que só é resolvido
+     * pelo Tomcat para proxies confiáveis.
+     */
+    @Test
+    void testPreHandle_IgnoraForwardedFor() {
+        MockHttpServletRequest request = requisicao("203.0.113.7");
+        request.addHeader("X-Forwarded-For", "198.51.100.1");
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        verify(limiteRequisicoesService).consumir("ip:203.0.113.7");
+    }
+
+    private MockHttpServletRequest requisicao(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/externo-b/pedidos");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
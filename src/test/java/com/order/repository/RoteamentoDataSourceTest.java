@@ -0,0 +1,133 @@
+package com.order.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.order.repository.RoteamentoDataSource.Replica;
+
+class RoteamentoDataSourceTest {
+
+    private Replica replica;
+
+    private RoteamentoDataSource roteamentoDataSource;
+
+    @BeforeEach
+    void setUp() {
+        replica = new Replica("replica-1", mock(DataSource.class));
+        roteamentoDataSource = new RoteamentoDataSource(mock(DataSource.class), List.of(replica),
+                Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+        roteamentoDataSource.limparEscrita();
+    }
+
+    /**
+     * Testa o roteamento de uma transação somente leitura.
+     * Verifica se a conexão vai para a réplica com atraso dentro do limite.
+     */
+    @Test
+    void testDetermineCurrentLookupKey_LeituraVaiParaReplica() {
+        replica.registrarLag(Duration.ofMillis(100));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("replica-1", roteamentoDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Testa a réplica ainda não medida.
+     * Verifica se a leitura vai para a primária enquanto o atraso é desconhecido.
+     */
+    @Test
+    void testDetermineCurrentLookupKey_LagDesconhecidoVaiParaPrimaria() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(RoteamentoDataSource.PRIMARIA, roteamentoDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Testa a réplica atrasada.
+     * Verifica se a leitura vai para a primária quando o atraso passa do limite e
+     * volta para a réplica quando ela se recupera.
+     */
+    @Test
+    void testDetermineCurrentLookupKey_LagAcimaDoLimiteVaiParaPrimaria() {
+        replica.registrarLag(Duration.ofSeconds(30));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals(RoteamentoDataSource.PRIMARIA, roteamentoDataSource.determineCurrentLookupKey());
+
+        replica.registrarLag(Duration.ZERO);
+
+        assertEquals("replica-1", roteamentoDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Testa o roteamento de uma transação de escrita.
+     * Verifica se a conexão vai para a primária mesmo com a réplica em dia.
+     */
+    @Test
+    void testDetermineCurrentLookupKey_EscritaVaiParaPrimaria() {
+        replica.registrarLag(Duration.ZERO);
+
+        assertEquals(RoteamentoDataSource.PRIMARIA, roteamentoDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Testa a leitura das próprias escritas.
+     * Verifica se, após o commit de uma escrita, a leitura da mesma thread vai para a
+     * primária até a réplica aplicar as escritas posteriores ao commit.
+     */
+    @Test
+    void testDetermineCurrentLookupKey_LeituraAposEscritaAguardaReplica() {
+        replica.registrarLag(Duration.ZERO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        assertEquals(RoteamentoDataSource.PRIMARIA, roteamentoDataSource.determineCurrentLookupKey());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals(RoteamentoDataSource.PRIMARIA, roteamentoDataSource.determineCurrentLookupKey(),
+                "A réplica ainda não aplicou a escrita da thread");
+
+        replica.registrarLag(Duration.ZERO);
+
+        assertEquals("replica-1", roteamentoDataSource.determineCurrentLookupKey());
+    }
+
+    /**
+     * Testa a limpeza da última escrita ao fim da requisição.
+     * Verifica se a próxima leitura da thread, já sem a marcação, volta a ir para a
+     * réplica em dia.
+     */
+    @Test
+    void testLimparEscrita_ThreadVoltaParaReplica() {
+        replica.registrarLag(Duration.ZERO);
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        roteamentoDataSource.determineCurrentLookupKey();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clear();
+
+        roteamentoDataSource.limparEscrita();
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertEquals("replica-1", roteamentoDataSource.determineCurrentLookupKey());
+    }
+}
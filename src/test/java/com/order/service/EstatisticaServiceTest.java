@@ -0,0 +1,94 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.order.model.Pedido;
+import com.order.model.PedidoEstatisticaHora;
+import com.order.model.dto.EstatisticaPedidosDTO;
+import com.order.model.dto.Granularidade;
+import com.order.repository.EstatisticaRepository;
+
+class EstatisticaServiceTest {
+
+    @Mock
+    private EstatisticaRepository estatisticaRepository;
+
+    private EstatisticaService estatisticaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        estatisticaService = new EstatisticaService(estatisticaRepository);
+    }
+
+    /**
+     * Testa se os pedidos de um lote são somados por hora de cadastro, com as
+     * horas ordenadas, em uma única gravação.
+     */
+    @Test
+    void testRegistrarPedidosImportados() {
+        estatisticaService.registrarPedidosImportados(List.of(
+                pedido(LocalDateTime.of(2024, 5, 1, 11, 5), "20.00"),
+                pedido(LocalDateTime.of(2024, 5, 1, 10, 59), "10.50"),
+                pedido(LocalDateTime.of(2024, 5, 1, 11, 30), "5.00")));
+
+        verify(estatisticaRepository, times(1)).acumular(argThat(totais -> totais.size() == 2
+                && totais.get(0).getHora().equals(LocalDateTime.of(2024, 5, 1, 10, 0))
+                && totais.get(0).getQuantidade() == 1
+                && totais.get(1).getHora().equals(LocalDateTime.of(2024, 5, 1, 11, 0))
+                && totais.get(1).getQuantidade() == 2
+                && totais.get(1).getValorTotal().equals(new BigDecimal("25.00"))));
+    }
+
+    /**
+     * Testa a consulta por período, verificando o cálculo do ticket médio.
+     */
+    @Test
+    void testConsultar() {
+        LocalDateTime de = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime ate = LocalDateTime.of(2024, 5, 3, 0, 0);
+        PedidoEstatisticaHora total = new PedidoEstatisticaHora();
+        total.setHora(de);
+        total.setQuantidade(3);
+        total.setValorTotal(new BigDecimal("100.00"));
+        when(estatisticaRepository.consultar(de, ate, Granularidade.DIA)).thenReturn(List.of(total));
+
+        List<EstatisticaPedidosDTO> estatisticas = estatisticaService.consultar(de, ate, Granularidade.DIA);
+
+        assertEquals(List.of(new EstatisticaPedidosDTO(de, 3, new BigDecimal("100.00"), new BigDecimal("33.33"))),
+                estatisticas, "As estatísticas do período estão incorretas");
+    }
+
+    /**
+     * Testa se intervalos invertidos ou com períodos demais são rejeitados sem
+     * consultar o banco.
+     */
+    @Test
+    void testConsultar_IntervaloInvalido() {
+        LocalDateTime de = LocalDateTime.of(2024, 5, 1, 0, 0);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> estatisticaService.consultar(de, de.minusDays(1), Granularidade.DIA));
+        assertThrows(IllegalArgumentException.class,
+                () -> estatisticaService.consultar(de, de.plusYears(5), Granularidade.HORA));
+        verify(estatisticaRepository, never()).consultar(any(), any(), any());
+    }
+
+    private Pedido pedido(LocalDateTime dataCadastro, String valor) {
+        Pedido pedido = new Pedido();
+        pedido.setDataCadastro(dataCadastro);
+        pedido.setValor(new BigDecimal(valor));
+        return pedido;
+    }
+}
@@ -0,0 +1,167 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import com.order.ImportacaoAgendadaProperties;
+import com.order.ImportacaoAgendadaProperties.Fonte;
+import com.order.model.ImportacaoJob;
+import com.order.model.PedidoExternoA;
+import com.order.model.dto.EstadoFonteImportacao;
+import com.order.repository.ImportacaoFonteRepository;
+import com.order.repository.ImportacaoFonteRepository.FonteBloqueada;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
+class ImportacaoAgendadaServiceTest {
+
+    private static final String URL = "http://externo-a/pedidos";
+
+    private static final String POSICAO = "2026-01-01T00:00:00Z";
+
+    @Mock
+    private ImportacaoFonteRepository importacaoFonteRepository;
+
+    @Mock
+    private ImportacaoService importacaoService;
+
+    @Mock
+    private PedidoExternoAService pedidoExternoAService;
+
+    @Mock
+    private FonteBloqueada fonteBloqueada;
+
+    @Mock
+    private PedidoExternoAClient pedidoExternoAClient;
+
+    private final Fonte fonte = new Fonte("parceiro", URL, Duration.ofMinutes(5), 2, 1, "desde", Duration.ofMinutes(1));
+
+    private ImportacaoAgendadaService importacaoAgendadaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .build());
+        importacaoAgendadaService = new ImportacaoAgendadaService(importacaoFonteRepository, importacaoService,
+                pedidoExternoAService,
+                pedidoExternoAClient, CircuitBreakerRegistry.ofDefaults(), retryRegistry,
+                new TaskExecutorAdapter(Runnable::run), new SimpleMeterRegistry(),
+                new ImportacaoAgendadaProperties(List.of(fonte)));
+
+        // O Flux é consumido como na importação real, contando os pedidos lidos
+        when(pedidoExternoAService.importarEmLotes(any(), any(ImportacaoJob.class)))
+                .thenAnswer(invocation -> invocation.<Flux<PedidoExternoA>>getArgument(0).count().map(Long::intValue));
+    }
+
+    /**
+     * Testa a importação de uma fonte devida.
+     * Verifica se a posição salva é enviada à fonte e se a nova posição é salva após a
+     * importação.
+     */
+    @Test
+    void testVerificar_ImportaAPartirDaPosicao() {
+        comBloqueio(new EstadoFonteImportacao("parceiro", POSICAO, Instant.now(), true));
+        when(pedidoExternoAClient.streamPagina(URL, null, Map.of("desde", POSICAO)))
+                .thenReturn(Flux.just(new PedidoExternoA("1", List.of())));
+
+        importacaoAgendadaService.verificar();
+
+        verify(pedidoExternoAClient).streamPagina(URL, null, Map.of("desde", POSICAO));
+        verify(fonteBloqueada).registrarSucesso(anyString(), eq(fonte.intervalo()));
+        verify(fonteBloqueada, never()).registrarFalha(any(), any());
+        verify(importacaoService).registrar(argThat(job -> job.getModo() == ImportacaoJob.Modo.AGENDADO));
+    }
+
+    /**
+     * Testa as retentativas.
+     * Verifica se uma falha transitória da fonte é repetida e a importação termina com sucesso.
+     */
+    @Test
+    void testVerificar_RetentaFalhaTransitoria() {
+        comBloqueio(new EstadoFonteImportacao("parceiro", null, Instant.now(), true));
+        AtomicInteger tentativas = new AtomicInteger();
+        when(pedidoExternoAClient.streamPagina(URL, null, Map.of())).thenReturn(Flux.defer(() ->
+                tentativas.getAndIncrement() == 0
+                        ? Flux.error(new IllegalStateException("Fonte indisponível"))
+                        : Flux.just(new PedidoExternoA("1", List.of()))));
+
+        importacaoAgendadaService.verificar();
+
+        assertEquals(2, tentativas.get(), "A página deveria ser buscada novamente após a falha");
+        verify(fonteBloqueada).registrarSucesso(anyString(), eq(fonte.intervalo()));
+    }
+
+    /**
+     * Testa a falha persistente da fonte.
+     * Verifica se a falha é registrada sem avançar a posição salva.
+     */
+    @Test
+    void testVerificar_FalhaMantemPosicao() {
+        comBloqueio(new EstadoFonteImportacao("parceiro", POSICAO, Instant.now(), true));
+        when(pedidoExternoAClient.streamPagina(URL, null, Map.of("desde", POSICAO)))
+                .thenReturn(Flux.error(new IllegalStateException("Fonte indisponível")));
+
+        importacaoAgendadaService.verificar();
+
+        verify(fonteBloqueada).registrarFalha("Fonte indisponível", fonte.intervalo());
+        verify(fonteBloqueada, never()).registrarSucesso(any(), any());
+    }
+
+    /**
+     * Testa a fonte ainda não devida.
+     * Verifica se a fonte não é chamada e se a próxima verificação não consulta o banco
+     * antes da próxima execução salva.
+     */
+    @Test
+    void testVerificar_FonteNaoDevida() {
+        comBloqueio(new EstadoFonteImportacao("parceiro", POSICAO, Instant.now().plusSeconds(60), false));
+
+        importacaoAgendadaService.verificar();
+        importacaoAgendadaService.verificar();
+
+        verify(importacaoFonteRepository, times(1)).executarComBloqueio(eq("parceiro"), any());
+        verifyNoInteractions(pedidoExternoAClient);
+    }
+
+    /**
+     * Testa o bloqueio entre instâncias.
+     * Verifica se a fonte não é importada quando outra instância detém o bloqueio.
+     */
+    @Test
+    void testVerificar_BloqueadaPorOutraInstancia() {
+        when(importacaoFonteRepository.executarComBloqueio(eq("parceiro"), any())).thenReturn(false);
+
+        importacaoAgendadaService.verificar();
+
+        verifyNoInteractions(pedidoExternoAClient, pedidoExternoAService, importacaoService);
+    }
+
+    private void comBloqueio(EstadoFonteImportacao estado) {
+        when(fonteBloqueada.estado()).thenReturn(estado);
+        when(importacaoFonteRepository.executarComBloqueio(eq("parceiro"), any())).thenAnswer(invocation -> {
+            invocation.<Consumer<FonteBloqueada>>getArgument(1).accept(fonteBloqueada);
+            return true;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.order.model.dto.ResultadoImportacao;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ImportacaoMetricasTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ImportacaoMetricas importacaoMetricas;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        importacaoMetricas = new ImportacaoMetricas(meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clear();
+    }
+
+    /**
+     * Testa o registro de um lote dentro de uma transação.
+     * Verifica se os pedidos só são contados após o commit.
+     */
+    @Test
+    void testRegistrarAposCommit_Commit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        importacaoMetricas.registrarAposCommit(new ResultadoImportacao(10, 2, 8));
+
+        assertEquals(0, inseridos());
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(8, inseridos());
+    }
+
+    /**
+     * Testa o registro de um lote cuja transação é desfeita.
+     * Verifica se os pedidos não são contados.
+     */
+    @Test
+    void testRegistrarAposCommit_Rollback() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        importacaoMetricas.registrarAposCommit(new ResultadoImportacao(10, 2, 8));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sincronizacao -> sincronizacao.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, inseridos());
+    }
+
+    private double inseridos() {
+        return meterRegistry.get("order.importacao.pedidos").tag("resultado", "inseridos").counter().count();
+    }
+}
@@ -0,0 +1,156 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.order.model.ImportacaoJob;
+import com.order.model.PedidoEstatisticaHora;
+import com.order.model.PedidoExternoA;
+import com.order.model.Produto;
+import com.order.model.dto.ResultadoImportacao;
+import com.order.repository.EstatisticaRepository;
+
+class ImportacaoParalelaServiceTest {
+
+    private static final int WORKERS = 4;
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private EstatisticaRepository estatisticaRepository;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private ImportacaoParalelaService importacaoParalelaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(WORKERS);
+        executor.setMaxPoolSize(WORKERS);
+        executor.initialize();
+        importacaoParalelaService = new ImportacaoParalelaService(pedidoService,
+                new EstatisticaService(estatisticaRepository), executor, WORKERS, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Testa a importação de 1.000 pedidos, com números repetidos, por 4 workers.
+     * Verifica se cada número é processado por uma única thread, se os lotes
+     * respeitam o tamanho máximo e se os resultados são somados.
+     */
+    @Test
+    void testImportar_ParticionadoPorNumero() {
+        Map<String, Set<String>> threadsPorNumero = new ConcurrentHashMap<>();
+        when(pedidoService.processarPedidosExternos(anyList(), anyMap())).thenAnswer(invocacao -> {
+            List<PedidoExternoA> lote = invocacao.getArgument(0);
+            for (PedidoExternoA pedido : lote) {
+                threadsPorNumero.computeIfAbsent(pedido.getNumeroPedido(), numero -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+            }
+            return new ResultadoImportacao(lote.size(), 0, lote.size());
+        });
+
+        List<PedidoExternoA> pedidos = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            pedidos.add(new PedidoExternoA(String.valueOf(i % 500), new ArrayList<Produto>()));
+        }
+        ImportacaoJob job = new ImportacaoJob(ImportacaoJob.Modo.PADRAO);
+
+        ResultadoImportacao resultado = importacaoParalelaService.importar(pedidos, job);
+
+        assertEquals(new ResultadoImportacao(1000, 0, 1000), resultado);
+        assertEquals(1000, job.getInseridos().get());
+        assertEquals(500, threadsPorNumero.size());
+        assertTrue(threadsPorNumero.values().stream().allMatch(threads -> threads.size() == 1),
+                "Um mesmo número de pedido não deveria ser processado por workers diferentes");
+        verify(pedidoService, atLeast(WORKERS)).processarPedidosExternos(argThat(lote -> lote.size() <= 100), anyMap());
+    }
+
+    /**
+     * Testa a importação com falha em um dos lotes.
+     * Verifica se a falha é contabilizada no job e se os demais lotes são gravados.
+     */
+    @Test
+    void testImportar_FalhaEmUmLote() {
+        when(pedidoService.processarPedidosExternos(anyList(), anyMap())).thenAnswer(invocacao -> {
+            List<PedidoExternoA> lote = invocacao.getArgument(0);
+            if (lote.stream().anyMatch(pedido -> pedido.getNumeroPedido().equals("falha"))) {
+                throw new IllegalStateException("Falha na transação");
+            }
+            return new ResultadoImportacao(lote.size(), 0, lote.size());
+        });
+
+        List<PedidoExternoA> pedidos = new ArrayList<>();
+        pedidos.add(new PedidoExternoA("falha", new ArrayList<Produto>()));
+        for (int i = 0; i < 399; i++) {
+            pedidos.add(new PedidoExternoA("p" + i, new ArrayList<Produto>()));
+        }
+        ImportacaoJob job = new ImportacaoJob(ImportacaoJob.Modo.PADRAO);
+
+        ResultadoImportacao resultado = importacaoParalelaService.importar(pedidos, job);
+
+        assertEquals(400, job.getRecebidos().get());
+        assertTrue(job.getFalhas().get() > 0 && job.getFalhas().get() <= 100);
+        assertEquals(400 - job.getFalhas().get(), resultado.inseridos());
+        assertEquals("Falha na transação", job.getErro());
+    }
+
+    /**
+     * Testa os totais por hora de uma importação com falha em um dos lotes.
+     * Verifica se os totais dos lotes confirmados são gravados uma única vez, ao
+     * final, e se os do lote desfeito não são contados.
+     */
+    @Test
+    void testImportar_TotaisPorHoraGravadosAoFinal() {
+        LocalDateTime cadastro = LocalDateTime.of(2024, 5, 1, 10, 15);
+        when(pedidoService.processarPedidosExternos(anyList(), anyMap())).thenAnswer(invocacao -> {
+            List<PedidoExternoA> lote = invocacao.getArgument(0);
+            Map<LocalDateTime, PedidoEstatisticaHora> totaisHora = invocacao.getArgument(1);
+            PedidoEstatisticaHora total = new PedidoEstatisticaHora();
+            total.setHora(cadastro.truncatedTo(ChronoUnit.HOURS));
+            total.setQuantidade(lote.size());
+            total.setValorTotal(BigDecimal.valueOf(lote.size()));
+            totaisHora.put(total.getHora(), total);
+            if (lote.stream().anyMatch(pedido -> pedido.getNumeroPedido().equals("falha"))) {
+                throw new IllegalStateException("Falha na transação");
+            }
+            return new ResultadoImportacao(lote.size(), 0, lote.size());
+        });
+
+        List<PedidoExternoA> pedidos = new ArrayList<>();
+        pedidos.add(new PedidoExternoA("falha", new ArrayList<Produto>()));
+        for (int i = 0; i < 399; i++) {
+            pedidos.add(new PedidoExternoA("p" + i, new ArrayList<Produto>()));
+        }
+        ImportacaoJob job = new ImportacaoJob(ImportacaoJob.Modo.PADRAO);
+
+        ResultadoImportacao resultado = importacaoParalelaService.importar(pedidos, job);
+
+        verify(estatisticaRepository, times(1)).acumular(argThat(totais -> totais.size() == 1
+                && totais.get(0).getQuantidade() == resultado.inseridos()));
+    }
+}
@@ -0,0 +1,163 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.order.ImportacaoAgendadaProperties;
+import com.order.ImportacaoAgendadaProperties.Fonte;
+import com.order.exception.ImportacaoRejeitadaException;
+import com.order.model.ImportacaoJob;
+import com.order.model.dto.ResultadoImportacao;
+
+import reactor.core.publisher.Mono;
+
+class ImportacaoServiceTest {
+
+    private static final String URL_PARCEIRO = "http://parceiro/pedidos";
+
+    @Mock
+    private PedidoExternoAService pedidoExternoAService;
+
+    private ThreadPoolTaskExecutor executor;
+
+    private ImportacaoService importacaoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        importacaoService = new ImportacaoService(pedidoExternoAService, executor, Duration.ofHours(1), 10,
+                new ImportacaoAgendadaProperties(List.of(new Fonte("parceiro", URL_PARCEIRO, Duration.ofMinutes(5), 4, 1,
+                        "desde", Duration.ofMinutes(1)))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Testa a execução de uma importação.
+     * Verifica se o job é concluído com as contagens registradas pelos lotes.
+     */
+    @Test
+    void testIniciar_Concluida() throws InterruptedException {
+        CountDownLatch concluida = new CountDownLatch(1);
+        when(pedidoExternoAService.importarPedidosExternoA(any())).thenAnswer(invocacao -> {
+            ImportacaoJob job = invocacao.getArgument(0);
+            job.registrar(new ResultadoImportacao(10, 2, 8));
+            return 10;
+        });
+
+        ImportacaoJob job = importacaoService.iniciar(ImportacaoJob.Modo.PADRAO, List.of(), 1);
+        executor.execute(concluida::countDown);
+        assertTrue(concluida.await(5, TimeUnit.SECONDS));
+
+        ImportacaoJob consultado = importacaoService.findById(job.getId()).orElseThrow();
+        assertEquals(ImportacaoJob.Status.CONCLUIDA, consultado.getStatus());
+        assertEquals(10, consultado.getRecebidos().get());
+        assertEquals(2, consultado.getDuplicados().get());
+        assertEquals(8, consultado.getInseridos().get());
+        assertNotNull(consultado.getFinalizadoEm());
+    }
+
+    /**
+     * Testa o comportamento com o executor ocupado e a fila cheia.
+     * Verifica se a nova importação é rejeitada e não fica registrada.
+     */
+    @Test
+    void testIniciar_FilaCheia() throws InterruptedException {
+        CountDownLatch liberar = new CountDownLatch(1);
+        when(pedidoExternoAService.importarPedidosExternoA(any())).thenAnswer(invocacao -> {
+            liberar.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+
+        ImportacaoJob emExecucao = importacaoService.iniciar(ImportacaoJob.Modo.PADRAO, List.of(), 1);
+        ImportacaoJob naFila = importacaoService.iniciar(ImportacaoJob.Modo.PADRAO, List.of(), 1);
+
+        assertThrows(ImportacaoRejeitadaException.class,
+                () -> importacaoService.iniciar(ImportacaoJob.Modo.PADRAO, List.of(), 1));
+        assertEquals(ImportacaoJob.Status.NA_FILA, naFila.getStatus());
+        assertTrue(importacaoService.findById(emExecucao.getId()).isPresent());
+
+        liberar.countDown();
+    }
+
+    /**
+     * Testa uma importação cuja leitura da API externa falha.
+     * Verifica se o job termina com o status de falha e a mensagem do erro.
+     */
+    @Test
+    void testIniciar_Falhou() throws InterruptedException {
+        CountDownLatch concluida = new CountDownLatch(1);
+        when(pedidoExternoAService.importarPedidosExternoAStreaming(any()))
+                .thenThrow(new IllegalStateException("API indisponível"));
+
+        ImportacaoJob job = importacaoService.iniciar(ImportacaoJob.Modo.STREAMING, List.of(), 1);
+        executor.execute(concluida::countDown);
+        assertTrue(concluida.await(5, TimeUnit.SECONDS));
+
+        assertEquals(ImportacaoJob.Status.FALHOU, job.getStatus());
+        assertEquals("API indisponível", job.getErro());
+    }
+
+    /**
+     * Testa a importação reativa de uma fonte configurada.
+     * Verifica se o nome da fonte é convertido na URL configurada.
+     */
+    @Test
+    void testIniciar_ReativoUsaUrlConfigurada() throws InterruptedException {
+        CountDownLatch concluida = new CountDownLatch(1);
+        when(pedidoExternoAService.importarPedidosExternoAReativo(any(), anyInt(), any())).thenReturn(Mono.just(0));
+
+        importacaoService.iniciar(ImportacaoJob.Modo.REATIVO, List.of("parceiro"), 2);
+        executor.execute(concluida::countDown);
+        assertTrue(concluida.await(5, TimeUnit.SECONDS));
+
+        verify(pedidoExternoAService).importarPedidosExternoAReativo(eq(List.of(URL_PARCEIRO)), eq(2), any());
+    }
+
+    /**
+     * Testa uma fonte que não está configurada.
+     * Verifica se a importação é rejeitada sem ser enfileirada.
+     */
+    @Test
+    void testIniciar_FonteNaoConfigurada() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importacaoService.iniciar(ImportacaoJob.Modo.REATIVO, List.of("http://169.254.169.254/"), 1));
+
+        verifyNoInteractions(pedidoExternoAService);
+    }
+
+    /**
+     * Testa quantidades de páginas fora do intervalo permitido.
+     * Verifica se a importação é rejeitada sem ser enfileirada.
+     */
+    @Test
+    void testIniciar_PaginasForaDoLimite() {
+        assertThrows(IllegalArgumentException.class,
+                () -> importacaoService.iniciar(ImportacaoJob.Modo.REATIVO, List.of("parceiro"), 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> importacaoService.iniciar(ImportacaoJob.Modo.REATIVO, List.of("parceiro"), 11));
+
+        verifyNoInteractions(pedidoExternoAService);
+    }
+}
@@ -0,0 +1,114 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.model.Pedido;
+import com.order.model.PedidoProduto;
+import com.order.model.Produto;
+import com.order.model.mapper.PedidoMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@EmbeddedKafka(partitions = 1, topics = KafkaProducer.TOPIC)
+class KafkaProducerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private DefaultKafkaProducerFactory<String, String> producerFactory;
+
+    private Consumer<String, String> consumer;
+
+    private KafkaProducer kafkaProducer;
+
+    @BeforeEach
+    void setUp(EmbeddedKafkaBroker broker) {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(broker);
+        producerProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        producerProps.put(ProducerConfig.ACKS_CONFIG, "all");
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 20);
+        producerProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        producerFactory = new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new StringSerializer());
+        kafkaProducer = new KafkaProducer(new KafkaTemplate<>(producerFactory), meterRegistry);
+
+        Map<String, Object> consumerProps = KafkaTestUtils.consumerProps("kafka-producer-test", "false", broker);
+        consumer = new DefaultKafkaConsumerFactory<>(consumerProps, new StringDeserializer(), new StringDeserializer())
+                .createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, KafkaProducer.TOPIC);
+    }
+
+    @AfterEach
+    void tearDown() {
+        consumer.close();
+        producerFactory.destroy();
+    }
+
+    /**
+     * Testa o envio de dois eventos de pedidos importados.
+     * Verifica se é enviado um registro por pedido, com o número do pedido como
+     * chave e o pedido em JSON como valor, e se os envios são contabilizados.
+     */
+    @Test
+    void testEnviar() throws Exception {
+        for (Pedido pedido : List.of(criarPedido(1L, "1001", 7L), criarPedido(2L, "1002", 8L))) {
+            String valor = objectMapper.writeValueAsString(PedidoMapper.toMensagem(pedido));
+            kafkaProducer.enviar(KafkaProducer.TOPIC, pedido.getNumeroPedido(), valor).get(10, TimeUnit.SECONDS);
+        }
+
+        ConsumerRecords<String, String> registros = KafkaTestUtils.getRecords(consumer);
+        assertEquals(2, registros.count(), "Deveria ser publicado um registro por pedido");
+
+        ConsumerRecord<String, String> primeiro = registros.iterator().next();
+        assertEquals("1001", primeiro.key());
+        JsonNode mensagem = objectMapper.readTree(primeiro.value());
+        assertEquals(1L, mensagem.get("id").asLong());
+        assertEquals(7L, mensagem.get("itens").get(0).get("produtoId").asLong());
+        assertEquals(2, mensagem.get("itens").get(0).get("quantidade").asInt());
+
+        assertEquals(2.0, meterRegistry.get("order.kafka.eventos").tag("resultado", "sucesso").counter().count());
+        assertEquals(0.0, meterRegistry.get("order.kafka.eventos").tag("resultado", "falha").counter().count());
+    }
+
+    private Pedido criarPedido(Long id, String numeroPedido, Long produtoId) {
+        Produto produto = new Produto();
+        produto.setId(produtoId);
+        produto.setNome("Produto " + produtoId);
+        produto.setValor(new BigDecimal("10.00"));
+
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setNumeroPedido(numeroPedido);
+        pedido.setValor(new BigDecimal("20.00"));
+
+        PedidoProduto pedidoProduto = new PedidoProduto();
+        pedidoProduto.setPedido(pedido);
+        pedidoProduto.setProduto(produto);
+        pedidoProduto.setQuantidade(2);
+        pedido.setPedidoProdutos(List.of(pedidoProduto));
+        return pedido;
+    }
+}
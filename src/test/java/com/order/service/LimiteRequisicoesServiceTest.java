@@ -0,0 +1,89 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import com.order.repository.LimiteRequisicoesRepository;
+import com.order.service.LimiteRequisicoesService.Armazenamento;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LimiteRequisicoesServiceTest {
+
+    @Mock
+    private LimiteRequisicoesRepository limiteRequisicoesRepository;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    /**
+     * Testa se o balde em memória permite uma rajada do tamanho da capacidade e
+     * rejeita a requisição seguinte, informando a espera, sem afetar outros clientes.
+     */
+    @Test
+    void testConsumir_Memoria() {
+        LimiteRequisicoesService service = criarService(Armazenamento.MEMORIA);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.consumir("ip:10.0.0.1").isZero(), "A rajada deveria ser permitida");
+        }
+        Duration espera = service.consumir("ip:10.0.0.1");
+
+        assertFalse(espera.isZero(), "A requisição acima da capacidade deveria ser rejeitada");
+        assertTrue(espera.compareTo(Duration.ofMinutes(1)) <= 0, "A espera deveria ser de um token, no máximo");
+        assertTrue(service.consumir("ip:10.0.0.2").isZero(), "Outro cliente não deveria ser afetado");
+        verifyNoInteractions(limiteRequisicoesRepository);
+    }
+
+    /**
+     * Testa se o armazenamento compartilhado decide o consumo e se, em caso de
+     * falha do banco, o balde em memória é usado.
+     */
+    @Test
+    void testConsumir_Postgres() {
+        LimiteRequisicoesService service = criarService(Armazenamento.POSTGRES);
+        when(limiteRequisicoesRepository.consumir(eq("ip:10.0.0.1"), anyInt(), anyLong(), anyLong())).thenReturn(false);
+        when(limiteRequisicoesRepository.consumir(eq("ip:10.0.0.2"), anyInt(), anyLong(), anyLong()))
+                .thenThrow(new DataAccessResourceFailureException("banco indisponível"));
+
+        assertFalse(service.consumir("ip:10.0.0.1").isZero(), "A decisão do banco deveria prevalecer");
+        assertTrue(service.consumir("ip:10.0.0.2").isZero(), "A falha do banco deveria usar o balde em memória");
+    }
+
+    /**
+     * Testa a cota local do armazenamento compartilhado.
+     * Verifica se uma única consulta ao banco reserva os tokens das requisições
+     * seguintes do cliente, e se o banco só é consultado de novo quando a cota acaba.
+     */
+    @Test
+    void testConsumir_PostgresReservaCotaLocal() {
+        LimiteRequisicoesService service = criarService(Armazenamento.POSTGRES);
+        when(limiteRequisicoesRepository.consumir(eq("ip:10.0.0.1"), eq(3), anyLong(), anyLong()))
+                .thenReturn(true, false);
+        when(limiteRequisicoesRepository.consumir(eq("ip:10.0.0.1"), eq(1), anyLong(), anyLong())).thenReturn(true);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(service.consumir("ip:10.0.0.1").isZero(), "As requisições dentro da cota deveriam passar");
+        }
+        verify(limiteRequisicoesRepository, times(1)).consumir(eq("ip:10.0.0.1"), anyInt(), anyLong(), anyLong());
+
+        assertTrue(service.consumir("ip:10.0.0.1").isZero(), "Sem a cota inteira, um token deveria ser reservado");
+        verify(limiteRequisicoesRepository).consumir(eq("ip:10.0.0.1"), eq(1), anyLong(), anyLong());
+    }
+
+    private LimiteRequisicoesService criarService(Armazenamento armazenamento) {
+        return new LimiteRequisicoesService(limiteRequisicoesRepository, new SimpleMeterRegistry(), 3,
+                Duration.ofMinutes(1), 3, armazenamento, 1000, 3);
+    }
+}
@@ -0,0 +1,145 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.model.OutboxEvento;
+import com.order.model.Pedido;
+import com.order.repository.OutboxRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxRepository outboxRepository;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new OutboxService(outboxRepository, kafkaProducer, new ObjectMapper().findAndRegisterModules(),
+                meterRegistry);
+        // O relay obtém o bloqueio e usa o próprio repositório
+        when(outboxRepository.executarComoRelay(any())).thenAnswer(invocacao -> Optional.ofNullable(
+                invocacao.<Function<OutboxRepository, ?>>getArgument(0).apply(outboxRepository)));
+    }
+
+    /**
+     * Testa o registro dos eventos de um lote importado.
+     * Verifica se é gravado um evento por pedido, com o número do pedido como chave.
+     */
+    @Test
+    void testRegistrarPedidosImportados() {
+        Pedido pedido = new Pedido();
+        pedido.setId(1L);
+        pedido.setNumeroPedido("1001");
+
+        outboxService.registrarPedidosImportados(List.of(pedido));
+
+        verify(outboxRepository, times(1)).inserir(argThat(eventos -> eventos.size() == 1
+                && eventos.get(0).getChave().equals("1001")
+                && eventos.get(0).getTopico().equals(KafkaProducer.TOPIC)
+                && eventos.get(0).getPayload().contains("\"numeroPedido\":\"1001\"")));
+        verify(kafkaProducer, never()).enviar(anyString(), anyString(), anyString());
+    }
+
+    /**
+     * Testa a publicação de um lote em que um dos envios falha.
+     * Verifica se apenas o evento confirmado é marcado como enviado e se as
+     * métricas do relay são registradas.
+     */
+    @Test
+    void testPublicarPendentes_FalhaParcial() {
+        when(outboxRepository.reservarPendentes(anyInt(), any()))
+                .thenReturn(List.of(criarEvento(1L, "1001"), criarEvento(2L, "1002")));
+        when(kafkaProducer.enviar(anyString(), eq("1001"), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(kafkaProducer.enviar(anyString(), eq("1002"), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker indisponível")));
+
+        int publicados = outboxService.publicarPendentes();
+
+        assertEquals(1, publicados, "Apenas o evento confirmado deveria ser contabilizado");
+        verify(outboxRepository, times(1)).marcarEnviados(List.of(1L));
+        verify(outboxRepository, times(1)).liberar(List.of(2L));
+        assertEquals(2.0, meterRegistry.get("order.outbox.lote").summary().totalAmount());
+        assertEquals(1, meterRegistry.get("order.outbox.publicacao").timer().count());
+    }
+
+    /**
+     * Testa a falha de um evento seguida de outro evento da mesma chave.
+     * Verifica se o evento seguinte não é marcado como enviado, mesmo confirmado, para
+     * que a chave seja reenviada na ordem, sem afetar as outras chaves.
+     */
+    @Test
+    void testPublicarPendentes_FalhaMantemOrdemDaChave() {
+        when(outboxRepository.reservarPendentes(anyInt(), any()))
+                .thenReturn(List.of(criarEvento(1L, "1001"), criarEvento(2L, "1002"), criarEvento(3L, "1001")));
+        when(kafkaProducer.enviar(anyString(), anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker indisponível")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        int publicados = outboxService.publicarPendentes();
+
+        assertEquals(1, publicados);
+        verify(outboxRepository, times(1)).marcarEnviados(List.of(2L));
+        verify(outboxRepository, times(1)).liberar(List.of(1L, 3L));
+    }
+
+    /**
+     * Testa a execução do relay sem eventos pendentes.
+     * Verifica se nada é enviado ao Kafka.
+     */
+    @Test
+    void testPublicarPendentes_SemEventos() {
+        when(outboxRepository.reservarPendentes(anyInt(), any())).thenReturn(List.of());
+
+        assertEquals(0, outboxService.publicarPendentes());
+        verify(kafkaProducer, never()).enviar(anyString(), anyString(), anyString());
+        verify(outboxRepository, never()).marcarEnviados(anyList());
+    }
+
+    /**
+     * Testa a execução do relay enquanto outra instância detém o bloqueio.
+     * Verifica se nenhum evento é reservado nem enviado.
+     */
+    @Test
+    void testPublicarPendentes_OutroRelayPublicando() {
+        when(outboxRepository.executarComoRelay(any())).thenReturn(Optional.empty());
+
+        assertEquals(0, outboxService.publicarPendentes());
+        verify(outboxRepository, never()).reservarPendentes(anyInt(), any());
+        verify(kafkaProducer, never()).enviar(anyString(), anyString(), anyString());
+    }
+
+    private OutboxEvento criarEvento(Long id, String chave) {
+        OutboxEvento evento = new OutboxEvento();
+        evento.setId(id);
+        evento.setTopico(KafkaProducer.TOPIC);
+        evento.setChave(chave);
+        evento.setPayload("{}");
+        evento.setCriadoEm(OffsetDateTime.now().minusSeconds(1));
+        return evento;
+    }
+}
@@ -0,0 +1,140 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.event.PedidosImportadosEvent;
+import com.order.model.Pedido;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.model.dto.PedidoSnapshot;
+import com.order.model.dto.VersaoPedido;
+import com.order.repository.PedidoRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PedidoConsultaServiceTest {
+
+    @Mock
+    private PedidoRepository pedidoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PedidoConsultaService pedidoConsultaService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pedidoConsultaService = new PedidoConsultaService(pedidoRepository, new ObjectMapper().findAndRegisterModules(),
+                transactionManager, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(10));
+    }
+
+    /**
+     * Testa o cache read-through por ID.
+     * Verifica se consultas repetidas vão ao banco uma única vez e se o pedido também
+     * passa a ser encontrado pelo número sem nova consulta.
+     */
+    @Test
+    void testFindById_UsaCache() {
+        when(pedidoRepository.findLinhasByIdIn(List.of(1L))).thenReturn(List.of(linha(1L, "12345")));
+
+        Optional<PedidoSnapshot> primeira = pedidoConsultaService.findById(1L);
+        Optional<PedidoSnapshot> segunda = pedidoConsultaService.findById(1L);
+        Optional<PedidoSnapshot> porNumero = pedidoConsultaService.findByNumeroPedido("12345");
+
+        assertTrue(primeira.isPresent(), "O pedido deveria ser encontrado");
+        assertSame(primeira.get(), segunda.get(), "A segunda consulta deveria vir do cache");
+        assertEquals(1L, porNumero.get().pedido().id(), "O pedido deveria ser encontrado pelo número");
+        assertTrue(new String(primeira.get().json(), StandardCharsets.UTF_8).contains("\"Produto 1\""),
+                "O JSON do pedido deveria conter o nome do produto");
+        verify(pedidoRepository, times(1)).findLinhasByIdIn(List.of(1L));
+        verify(pedidoRepository, never()).findLinhasByNumeroPedido("12345");
+    }
+
+    /**
+     * Testa o cache negativo.
+     * Verifica se a falta de um pedido fica em cache e se a entrada é invalidada quando
+     * uma importação grava o pedido.
+     */
+    @Test
+    void testFindByNumeroPedido_CacheNegativoInvalidadoNaImportacao() {
+        when(pedidoRepository.findLinhasByNumeroPedido("999")).thenReturn(List.of());
+
+        assertTrue(pedidoConsultaService.findByNumeroPedido("999").isEmpty(), "O pedido não deveria existir");
+        assertTrue(pedidoConsultaService.findByNumeroPedido("999").isEmpty(), "O pedido não deveria existir");
+        verify(pedidoRepository, times(1)).findLinhasByNumeroPedido("999");
+
+        Pedido importado = pedido(2L, "999");
+        when(pedidoRepository.findLinhasByNumeroPedido("999")).thenReturn(List.of(linha(2L, "999")));
+        pedidoConsultaService.invalidar(new PedidosImportadosEvent(List.of(importado)));
+
+        assertTrue(pedidoConsultaService.findByNumeroPedido("999").isPresent(), "O pedido importado deveria ser encontrado");
+        verify(pedidoRepository, times(2)).findLinhasByNumeroPedido("999");
+    }
+
+    /**
+     * Testa a carga de um pedido logo após a invalidação.
+     * Verifica se a primeira carga vai à réplica (transação somente leitura) e se a
+     * recarga do pedido invalidado vai à primária.
+     */
+    @Test
+    void testFindByNumeroPedido_RecargaAposInvalidacaoNaPrimaria() {
+        when(pedidoRepository.findLinhasByNumeroPedido("999")).thenReturn(List.of());
+
+        pedidoConsultaService.findByNumeroPedido("999");
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+
+        pedidoConsultaService.invalidar(new PedidosImportadosEvent(List.of(pedido(2L, "999"))));
+        pedidoConsultaService.findByNumeroPedido("999");
+
+        verify(transactionManager, times(1)).getTransaction(argThat(definicao -> !definicao.isReadOnly()));
+    }
+
+    /**
+     * Testa a consulta da versão para as requisições condicionais.
+     * Verifica se a versão de um pedido em cache vem do snapshot, sem consulta, e se a de
+     * um pedido fora do cache vem da consulta leve, sem carregar os itens.
+     */
+    @Test
+    void testFindVersaoById() {
+        when(pedidoRepository.findLinhasByIdIn(List.of(1L))).thenReturn(List.of(linha(1L, "12345")));
+        when(pedidoRepository.findVersaoById(2L)).thenReturn(Optional.of(new VersaoPedido(2L, 5L, null, null)));
+
+        pedidoConsultaService.findById(1L);
+        Optional<VersaoPedido> emCache = pedidoConsultaService.findVersaoById(1L);
+        Optional<VersaoPedido> foraDoCache = pedidoConsultaService.findVersaoById(2L);
+
+        assertEquals("1-3", emCache.get().etag(), "A ETag do pedido em cache está incorreta");
+        assertEquals("2-5", foraDoCache.get().etag(), "A ETag do pedido fora do cache está incorreta");
+        verify(pedidoRepository, never()).findVersaoById(1L);
+        verify(pedidoRepository, never()).findLinhasByIdIn(List.of(2L));
+    }
+
+    private PedidoLinhaProjecao linha(Long pedidoId, String numeroPedido) {
+        return new PedidoLinhaProjecao(pedidoId, numeroPedido, new BigDecimal("100.00"), null, null, 3L, null, 10L, 20L,
+                "Produto 1", new BigDecimal("100.00"), 1);
+    }
+
+    private Pedido pedido(Long id, String numeroPedido) {
+        Pedido pedido = new Pedido();
+        pedido.setId(id);
+        pedido.setNumeroPedido(numeroPedido);
+        return pedido;
+    }
+}
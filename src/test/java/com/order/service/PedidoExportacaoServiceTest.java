@@ -0,0 +1,95 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.order.model.dto.FormatoExportacao;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.repository.PedidoExportacaoRepository;
+
+class PedidoExportacaoServiceTest {
+
+    private static final LocalDateTime DATA_CADASTRO = LocalDateTime.of(2024, 5, 1, 10, 0);
+
+    @Mock
+    private PedidoExportacaoRepository pedidoExportacaoRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private PedidoExportacaoService pedidoExportacaoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        pedidoExportacaoService = new PedidoExportacaoService(pedidoExportacaoRepository, objectMapper,
+                transactionManager);
+
+        doAnswer(invocacao -> {
+            Consumer<PedidoLinhaProjecao> consumidor = invocacao.getArgument(2);
+            List.of(linha(1L, "1", 10L, "Produto 1"),
+                    linha(1L, "1", 11L, "Produto, \"especial\""),
+                    linha(2L, "2", null, null)).forEach(consumidor);
+            return null;
+        }).when(pedidoExportacaoRepository).exportar(any(), any(), any());
+    }
+
+    /**
+     * Testa a exportação em NDJSON, verificando se as linhas de um mesmo pedido
+     * são agrupadas em um único objeto por linha.
+     */
+    @Test
+    void testExportar_Ndjson() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        pedidoExportacaoService.exportar(FormatoExportacao.NDJSON, null, null, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, linhas.length, "Deveria haver uma linha por pedido");
+        assertTrue(linhas[0].startsWith("{\"id\":1,") && linhas[0].contains("\"Produto 1\""),
+                "O primeiro pedido está incorreto");
+        assertTrue(linhas[1].contains("\"produtos\":[]"), "O segundo pedido não deveria ter produtos");
+    }
+
+    /**
+     * Testa a exportação em CSV, verificando o cabeçalho, uma linha por item e o
+     * escape de campos com vírgula e aspas.
+     */
+    @Test
+    void testExportar_Csv() throws Exception {
+        ByteArrayOutputStream saida = new ByteArrayOutputStream();
+
+        pedidoExportacaoService.exportar(FormatoExportacao.CSV, null, null, saida);
+
+        String[] linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, linhas.length, "Deveria haver o cabeçalho e uma linha por item");
+        assertEquals("1,1,100.00,,2024-05-01T10:00,10,10,Produto 1,50.00,1", linhas[1],
+                "A linha do item está incorreta");
+        assertTrue(linhas[2].contains(",\"Produto, \"\"especial\"\"\","), "O nome do produto deveria ser escapado");
+        assertEquals("2,2,100.00,,2024-05-01T10:00,,,,,", linhas[3], "A linha do pedido sem itens está incorreta");
+    }
+
+    private PedidoLinhaProjecao linha(Long pedidoId, String numeroPedido, Long pedidoProdutoId, String produtoNome) {
+        return new PedidoLinhaProjecao(pedidoId, numeroPedido, new BigDecimal("100.00"), null, DATA_CADASTRO, 0L,
+                null, pedidoProdutoId, pedidoProdutoId, produtoNome, pedidoProdutoId == null ? null : new BigDecimal("50.00"),
+                pedidoProdutoId == null ? null : 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.order.model.PedidoExternoA;
+
+import reactor.core.publisher.Mono;
+
+class PedidoExternoAClientTest {
+
+    private final Set<String> paginasRequisitadas = ConcurrentHashMap.newKeySet();
+
+    private final PedidoExternoAClient pedidoExternoAClient = new PedidoExternoAClient(WebClient.builder()
+            .exchangeFunction(requisicao -> {
+                String query = requisicao.url().getQuery();
+                paginasRequisitadas.add(query == null ? "" : query);
+                String numero = query == null ? "unica" : query.replace("pagina=", "p");
+                return Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body("[{\"numeroPedido\":\"" + numero + "-1\"},{\"numeroPedido\":\"" + numero + "-2\"}]")
+                        .build());
+            })
+            .build(), "pagina");
+
+    /**
+     * Testa a leitura de uma única página.
+     * Verifica se o array JSON é decodificado em um pedido por elemento.
+     */
+    @Test
+    void testStreamPaginas_PaginaUnica() {
+        List<PedidoExternoA> pedidos = pedidoExternoAClient.streamPaginas("http://externo-a/pedidos", 1, 4)
+                .collectList()
+                .block();
+
+        assertEquals(List.of("unica-1", "unica-2"), pedidos.stream().map(PedidoExternoA::getNumeroPedido).toList());
+        assertEquals(Set.of(""), paginasRequisitadas, "A página única não deveria enviar o parâmetro de página");
+    }
+
+    /**
+     * Testa a leitura de várias páginas em paralelo.
+     * Verifica se todas as páginas são requisitadas e se todos os pedidos são retornados.
+     */
+    @Test
+    void testStreamPaginas_VariasPaginas() {
+        List<PedidoExternoA> pedidos = pedidoExternoAClient.streamPaginas("http://externo-a/pedidos", 3, 2)
+                .collectList()
+                .block();
+
+        assertEquals(6, pedidos.size(), "A quantidade de pedidos lidos está incorreta");
+        assertEquals(Set.of("pagina=0", "pagina=1", "pagina=2"), paginasRequisitadas,
+                "Todas as páginas deveriam ser requisitadas");
+    }
+
+    /**
+     * Testa a leitura de uma página com parâmetros adicionais.
+     * Verifica se a posição da importação incremental é enviada junto com a página.
+     */
+    @Test
+    void testStreamPagina_ComPosicao() {
+        List<PedidoExternoA> pedidos = pedidoExternoAClient
+                .streamPagina("http://externo-a/pedidos", 1, Map.of("desde", "2026-01-01T00:00:00Z"))
+                .collectList()
+                .block();
+
+        assertEquals(2, pedidos.size(), "A quantidade de pedidos lidos está incorreta");
+        assertEquals(Set.of("pagina=1&desde=2026-01-01T00:00:00Z"), paginasRequisitadas,
+                "A página e a posição deveriam ser enviadas");
+    }
+}
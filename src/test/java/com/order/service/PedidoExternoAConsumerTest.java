@@ -0,0 +1,121 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.model.PedidoExternoA;
+import com.order.model.dto.ResultadoImportacao;
+
+class PedidoExternoAConsumerTest {
+
+    private static final String TOPICO = "pedidos-externo-a";
+
+    @Mock
+    private PedidoService pedidoService;
+
+    @Mock
+    private Acknowledgment acknowledgment;
+
+    private PedidoExternoAConsumer pedidoExternoAConsumer;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        pedidoExternoAConsumer = new PedidoExternoAConsumer(pedidoService, new ObjectMapper().findAndRegisterModules());
+    }
+
+    /**
+     * Testa um lote com dois pedidos válidos.
+     * Verifica se seguem em uma única chamada ao PedidoService e se os offsets são
+     * confirmados.
+     */
+    @Test
+    void testConsumir_RegistrosValidos() {
+        pedidoExternoAConsumer.consumir(List.of(registro(0, "{\"numeroPedido\":\"1\",\"produtos\":[]}"),
+                registro(1, "{\"numeroPedido\":\"2\",\"produtos\":[]}")), acknowledgment);
+
+        verify(pedidoService, times(1)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 2
+                && pedidos.get(0).getNumeroPedido().equals("1")
+                && pedidos.get(1).getNumeroPedido().equals("2")));
+        verify(acknowledgment, times(1)).acknowledge();
+    }
+
+    /**
+     * Testa um lote com um registro inválido no meio.
+     * Verifica se os registros anteriores são gravados e se a exceção indica o
+     * índice do inválido, para que apenas ele vá para o dead letter.
+     */
+    @Test
+    void testConsumir_RegistroInvalido() {
+        ConsumerRecord<String, String> json = registro(0, "{\"numeroPedido\":\"1\",\"produtos\":[]}");
+        ConsumerRecord<String, String> invalido = registro(1, "não é json");
+        ConsumerRecord<String, String> outroJson = registro(2, "{\"numeroPedido\":\"2\",\"produtos\":[]}");
+
+        BatchListenerFailedException excecao = assertThrows(BatchListenerFailedException.class,
+                () -> pedidoExternoAConsumer.consumir(List.of(json, invalido, outroJson), acknowledgment));
+
+        assertEquals(1, excecao.getIndex());
+        verify(pedidoService, times(1)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 1
+                && pedidos.get(0).getNumeroPedido().equals("1")));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    /**
+     * Testa pedidos sem número, com a lista de produtos nula e com produto sem valor.
+     * Verifica se cada um é rejeitado na leitura.
+     */
+    @Test
+    void testConsumir_CamposObrigatorios() {
+        for (String valor : List.of("{\"produtos\":[]}", "{\"numeroPedido\":\"1\",\"produtos\":null}",
+                "{\"numeroPedido\":\"1\",\"produtos\":[{\"nome\":\"Caneta\"}]}")) {
+            BatchListenerFailedException excecao = assertThrows(BatchListenerFailedException.class,
+                    () -> pedidoExternoAConsumer.consumir(List.of(registro(0, valor)), acknowledgment));
+
+            assertEquals(0, excecao.getIndex());
+            assertInstanceOf(IllegalArgumentException.class, excecao.getCause());
+        }
+        verify(pedidoService, never()).processarPedidosExternos(anyList());
+    }
+
+    /**
+     * Testa uma falha na gravação causada por um único pedido do lote.
+     * Verifica se os pedidos são regravados um a um e se a exceção indica o
+     * índice do pedido que falha, sem confirmar os offsets.
+     */
+    @Test
+    void testConsumir_FalhaNaGravacao() {
+        when(pedidoService.processarPedidosExternos(anyList())).thenAnswer(invocacao -> {
+            List<PedidoExternoA> pedidos = invocacao.getArgument(0);
+            if (pedidos.stream().anyMatch(pedido -> pedido.getNumeroPedido().equals("2"))) {
+                throw new IllegalStateException("Falha na gravação");
+            }
+            return new ResultadoImportacao(pedidos.size(), 0, pedidos.size());
+        });
+
+        BatchListenerFailedException excecao = assertThrows(BatchListenerFailedException.class,
+                () -> pedidoExternoAConsumer.consumir(List.of(registro(0, "{\"numeroPedido\":\"1\",\"produtos\":[]}"),
+                        registro(1, "{\"numeroPedido\":\"2\",\"produtos\":[]}"),
+                        registro(2, "{\"numeroPedido\":\"3\",\"produtos\":[]}")), acknowledgment));
+
+        assertEquals(1, excecao.getIndex());
+        verify(pedidoService, times(1)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 1
+                && pedidos.get(0).getNumeroPedido().equals("1")));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private ConsumerRecord<String, String> registro(long offset, String valor) {
+        return new ConsumerRecord<>(TOPICO, 0, offset, null, valor);
+    }
+}
@@ -1,8 +1,12 @@
 package com.order.service;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -11,11 +15,17 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.web.client.RestTemplate;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.order.model.ImportacaoJob;
 import com.order.model.PedidoExternoA;
 import com.order.model.Produto;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Flux;
+
 class PedidoExternoAServiceTest {
 
     @InjectMocks
@@ -27,11 +37,17 @@ class PedidoExternoAServiceTest {
     @Mock
     private RestTemplate restTemplate;
 
-    private static final String ORDER_EXTERNO_A_URL = "http://api.externa.com/pedidos";
+    @Mock
+    private PedidoExternoAClient pedidoExternoAClient;
+
+    @Mock
+    private ImportacaoParalelaService importacaoParalelaService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(pedidoExternoAService, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(pedidoExternoAService, "importacaoMetricas", new ImportacaoMetricas(new SimpleMeterRegistry()));
     }
 
     /**
@@ -39,7 +55,7 @@ class PedidoExternoAServiceTest {
      * 
      * Simula o comportamento de um grande número de pedidos (200 mil+) retornados
      * pela API externa.
-     * Verifica se o PedidoService.processarPedidosExternos é chamado para processar
+     * Verifica se o ImportacaoParalelaService.importar é chamado para processar
      * a lista de pedidos.
      */
 
@@ -57,47 +73,125 @@ class PedidoExternoAServiceTest {
         PedidoExternoA[] pedidosExternosArray = pedidosExternosList.toArray(new PedidoExternoA[0]);
 
         // Configura o RestTemplate para retornar os pedidos simulados
-        when(restTemplate.getForObject(anyString(), eq(PedidoExternoA[].class)))
+        when(restTemplate.getForObject(nullable(String.class), eq(PedidoExternoA[].class)))
                 .thenReturn(pedidosExternosArray);
 
         // Executa o método a ser testado
         pedidoService.processarPedidosExternos(pedidosExternosList);
 
         // Verifica se o pedidoService.processarPedidosExternos foi chamado
-        verify(pedidoService, times(1)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 200000));
+        verify(importacaoParalelaService, times(1)).importar(argThat(pedidos -> pedidos.size() == 200000), any());
     }
 
     /**
      * Testa o comportamento quando a API externa retorna uma lista vazia.
-     * Verifica se o método processarPedidosExternos não é chamado.
+     * Verifica se nenhum pedido é enviado para gravação.
      */
     @Test
     void testImportarPedidosExternoA_Vazia() {
         // Simula uma resposta vazia da API externa
-        when(restTemplate.getForObject(eq(ORDER_EXTERNO_A_URL), eq(PedidoExternoA[].class)))
+        when(restTemplate.getForObject(nullable(String.class), eq(PedidoExternoA[].class)))
                 .thenReturn(new PedidoExternoA[0]);
 
         // Chama o método que deve processar os pedidos externos
-        pedidoExternoAService.importarPedidosExternoA();
+        pedidoExternoAService.importarPedidosExternoA(new ImportacaoJob(ImportacaoJob.Modo.PADRAO));
 
-        // Verifica se o método processarPedidosExternos não foi chamado
-        verify(pedidoService, never()).processarPedidosExternos(anyList());
+        // Verifica se nenhum pedido foi enviado para gravação
+        verify(importacaoParalelaService, never()).importar(anyList(), any());
     }
 
     /**
      * Testa o comportamento quando ocorre uma falha na requisição da API externa.
-     * Verifica se o método processarPedidosExternos não é chamado.
+     * Verifica se nenhum pedido é enviado para gravação.
      */
     @Test
     void testImportarPedidosExternoA_FalhaRequisicao() {
         // Simula uma falha no RestTemplate (exemplo, retorna null ou lança uma exceção)
-        when(restTemplate.getForObject(eq(ORDER_EXTERNO_A_URL), eq(PedidoExternoA[].class)))
+        when(restTemplate.getForObject(nullable(String.class), eq(PedidoExternoA[].class)))
                 .thenReturn(null);
 
         // Chama o método que deve processar os pedidos externos
-        pedidoExternoAService.importarPedidosExternoA();
+        pedidoExternoAService.importarPedidosExternoA(new ImportacaoJob(ImportacaoJob.Modo.PADRAO));
+
+        // Verifica se nenhum pedido foi enviado para gravação
+        verify(importacaoParalelaService, never()).importar(anyList(), any());
+    }
 
-        // Verifica se o método processarPedidosExternos não foi chamado
+    /**
+     * Testa a leitura em streaming de um array com 2.500 pedidos.
+     * Verifica se os pedidos são enviados ao PedidoService em lotes de no máximo
+     * 1.000 elementos, sem materializar o array completo.
+     */
+    @Test
+    void testProcessarStream_EmLotes() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 2500; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"numeroPedido\":\"").append(i).append("\",\"produtos\":[]}");
+        }
+        json.append(']');
+
+        int total = pedidoExternoAService.processarStream(
+                new ByteArrayInputStream(json.toString().getBytes(StandardCharsets.UTF_8)),
+                new ImportacaoJob(ImportacaoJob.Modo.STREAMING));
+
+        assertEquals(2500, total, "A quantidade de pedidos lidos está incorreta");
+        verify(pedidoService, times(2)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 1000));
+        verify(pedidoService, times(1)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 500));
+    }
+
+    /**
+     * Testa a leitura em streaming de uma resposta vazia.
+     * Verifica se o método processarPedidosExternos não é chamado.
+     */
+    @Test
+    void testProcessarStream_Vazio() throws IOException {
+        int total = pedidoExternoAService.processarStream(
+                new ByteArrayInputStream("[]".getBytes(StandardCharsets.UTF_8)),
+                new ImportacaoJob(ImportacaoJob.Modo.STREAMING));
+
+        assertEquals(0, total, "Nenhum pedido deveria ser lido");
         verify(pedidoService, never()).processarPedidosExternos(anyList());
     }
+
+    /**
+     * Testa a importação com o cliente não bloqueante a partir de duas fontes.
+     * Verifica se os pedidos das fontes são agrupados em lotes antes do processamento.
+     */
+    @Test
+    void testImportarPedidosExternoAReativo() {
+        when(pedidoExternoAClient.streamPaginas(eq("http://fonte-1"), eq(2), anyInt()))
+                .thenReturn(Flux.range(0, 1500).map(i -> new PedidoExternoA("a" + i, new ArrayList<Produto>())));
+        when(pedidoExternoAClient.streamPaginas(eq("http://fonte-2"), eq(2), anyInt()))
+                .thenReturn(Flux.range(0, 500).map(i -> new PedidoExternoA("b" + i, new ArrayList<Produto>())));
+
+        Integer total = pedidoExternoAService
+                .importarPedidosExternoAReativo(List.of("http://fonte-1", "http://fonte-2"), 2,
+                        new ImportacaoJob(ImportacaoJob.Modo.REATIVO))
+                .block();
+
+        assertEquals(2000, total, "A quantidade de pedidos lidos está incorreta");
+        verify(pedidoService, times(2)).processarPedidosExternos(argThat(pedidos -> pedidos.size() == 1000));
+    }
+
+    /**
+     * Testa a importação de 2.500 pedidos retornados pela API externa.
+     * Verifica se todos os pedidos são enviados ao ImportacaoParalelaService com o job.
+     */
+    @Test
+    void testImportarPedidosExternoA_Paralela() {
+        PedidoExternoA[] pedidosExternos = new PedidoExternoA[2500];
+        for (int i = 0; i < pedidosExternos.length; i++) {
+            pedidosExternos[i] = new PedidoExternoA(String.valueOf(i), new ArrayList<Produto>());
+        }
+        when(restTemplate.getForObject(nullable(String.class), eq(PedidoExternoA[].class))).thenReturn(pedidosExternos);
+
+        ImportacaoJob job = new ImportacaoJob(ImportacaoJob.Modo.PADRAO);
+        int total = pedidoExternoAService.importarPedidosExternoA(job);
+
+        assertEquals(2500, total, "A quantidade de pedidos lidos está incorreta");
+        verify(importacaoParalelaService, times(1)).importar(argThat(pedidos -> pedidos.size() == 2500), eq(job));
+    }
 }
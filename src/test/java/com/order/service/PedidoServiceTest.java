@@ -1,22 +1,40 @@
 package com.order.service;
 
+import com.order.event.PedidosImportadosEvent;
 import com.order.model.Pedido;
 import com.order.model.PedidoExternoA;
 import com.order.model.PedidoProduto;
 import com.order.model.Produto;
+import com.order.model.dto.CursorPedido;
+import com.order.model.dto.PedidoDTO;
+import com.order.model.dto.PedidoLinhaProjecao;
+import com.order.model.dto.PedidoProdutoDTO;
+import com.order.model.dto.ResultadoImportacao;
+import com.order.model.dto.VersaoPedido;
+import com.order.repository.PedidoBatchRepository;
 import com.order.repository.PedidoProdutoRepository;
 import com.order.repository.PedidoRepository;
 import com.order.repository.ProdutoRepository;
-import com.order.model.mapper.PedidoMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -35,9 +53,25 @@ class PedidoServiceTest {
     @Mock
     private PedidoProdutoRepository pedidoProdutoRepository;
 
+    @Mock
+    private PedidoBatchRepository pedidoBatchRepository;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private EstatisticaService estatisticaService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(pedidoService, "produtoCatalogoService",
+                new ProdutoCatalogoService(produtoRepository, new SimpleMeterRegistry(), 1000));
+        ReflectionTestUtils.setField(pedidoService, "importacaoMetricas", new ImportacaoMetricas(new SimpleMeterRegistry()));
+        when(pedidoBatchRepository.inserirPedidos(anyList())).thenAnswer(invocacao -> invocacao.getArgument(0));
     }
 
     /**
@@ -48,11 +82,11 @@ class PedidoServiceTest {
     void testCriarPedido() {
         Produto produto1 = new Produto();
         produto1.setNome("Produto 1");
-        produto1.setValor(100.0);
+        produto1.setValor(new BigDecimal("100.00"));
 
         Produto produto2 = new Produto();
         produto2.setNome("Produto 2");
-        produto2.setValor(200.0);
+        produto2.setValor(new BigDecimal("200.00"));
 
         Pedido pedido = new Pedido();
         
@@ -61,35 +95,211 @@ class PedidoServiceTest {
 
         pedido.setPedidoProdutos(Arrays.asList(pedidoProduto1, pedidoProduto2));
 
-        pedido.setValor(produto1.getValor() + produto2.getValor());
+        pedido.setValor(produto1.getValor().add(produto2.getValor()));
         pedido.setNumeroPedido("123");
 
         when(produtoRepository.saveAll(anyList())).thenReturn(Arrays.asList(produto1, produto2));
         when(pedidoProdutoRepository.saveAll(anyList())).thenReturn(Arrays.asList(pedidoProduto1, pedidoProduto2));
 
-        assertEquals(300.0, pedido.getValor(), "O valor total do pedido está incorreto");
+        assertEquals(new BigDecimal("300.00"), pedido.getValor(), "O valor total do pedido está incorreto");
+    }
+
+    /**
+     * Testa se o valor total é exato em centavos, sem o erro de arredondamento de
+     * ponto flutuante (3 x 0.10 deve resultar em 0.30, e não 0.30000000000000004).
+     */
+    @Test
+    void testCalcularValorTotal_Exato() {
+        Produto produto = new Produto();
+        produto.setNome("Produto 1");
+        produto.setValor(new BigDecimal("0.10"));
+
+        Pedido pedido = new Pedido();
+        List<PedidoProduto> pedidoProdutos = List.of(new PedidoProduto(pedido, produto, 3));
+
+        assertEquals(new BigDecimal("0.30"), PedidoService.calcularValorTotal(pedidoProdutos, null),
+                "O valor total do pedido está incorreto");
+    }
+
+    /**
+     * Testa a aplicação do desconto percentual sobre o total, com arredondamento
+     * half-up para o centavo, e se descontos acima de 100% zeram o pedido.
+     */
+    @Test
+    void testCalcularValorTotal_ComDesconto() {
+        Produto produto1 = new Produto();
+        produto1.setNome("Produto 1");
+        produto1.setValor(new BigDecimal("19.99"));
+
+        Produto produto2 = new Produto();
+        produto2.setNome("Produto 2");
+        produto2.setValor(new BigDecimal("5.01"));
+
+        Pedido pedido = new Pedido();
+        List<PedidoProduto> pedidoProdutos = List.of(
+                new PedidoProduto(pedido, produto1, 2),
+                new PedidoProduto(pedido, produto2, 1));
+
+        // 44.99 com 12.5% de desconto: 5.62375 arredondado para 5.62
+        assertEquals(new BigDecimal("39.37"), PedidoService.calcularValorTotal(pedidoProdutos, new BigDecimal("12.5")),
+                "O desconto não foi aplicado corretamente");
+        assertEquals(new BigDecimal("0.00"), PedidoService.calcularValorTotal(pedidoProdutos, new BigDecimal("150")),
+                "O desconto deveria ser limitado a 100%");
     }
 
     /**
      * Testa o processamento de pedidos externos, verificando se um pedido é processado corretamente
-     * e salvado no banco quando não existe.
+     * e gravado em lote no banco quando não existe.
      */
     @Test
     void testProcessarPedidosExternos() {
         Produto produto = new Produto();
         produto.setNome("Produto 1");
-        produto.setValor(100.0);
+        produto.setValor(new BigDecimal("100.00"));
+
+        PedidoExternoA pedidoExternoA = new PedidoExternoA("12345", List.of(produto));
+
+        when(pedidoRepository.findNumerosPedidoExistentes(anyCollection())).thenReturn(Set.of());
+
+        ResultadoImportacao resultado = pedidoService.processarPedidosExternos(List.of(pedidoExternoA, pedidoExternoA));
+
+        assertEquals(new ResultadoImportacao(2, 1, 1), resultado, "As contagens da importação estão incorretas");
+        verify(pedidoBatchRepository, times(1)).inserirPedidos(argThat(pedidos -> pedidos.size() == 1
+                && pedidos.get(0).getValor().equals(new BigDecimal("100.00"))
+                && pedidos.get(0).getPedidoProdutos().get(0).getProduto().getNome().equals("Produto 1")));
+        verify(pedidoRepository, never()).save(any(Pedido.class));
+        verify(outboxService, times(1)).registrarPedidosImportados(argThat(pedidos -> pedidos.size() == 1));
+        verify(estatisticaService, times(1)).registrarPedidosImportados(argThat(pedidos -> pedidos.size() == 1));
+        verify(eventPublisher, times(1)).publishEvent(any(PedidosImportadosEvent.class));
+    }
+
+    /**
+     * Testa se produtos repetidos entre pedidos do mesmo lote são resolvidos para uma única
+     * instância, e se produtos já cadastrados são reutilizados em vez de inseridos.
+     */
+    @Test
+    void testProcessarPedidosExternos_ReutilizaProdutos() {
+        Produto cadastrado = new Produto();
+        cadastrado.setId(7L);
+        cadastrado.setNome("Produto 1");
+        cadastrado.setValor(new BigDecimal("100.00"));
+
+        Produto produto1 = new Produto();
+        produto1.setNome("Produto 1");
+        produto1.setValor(new BigDecimal("100.00"));
+
+        Produto produto2 = new Produto();
+        produto2.setNome("Produto 2");
+        produto2.setValor(new BigDecimal("50.00"));
+
+        Produto produto2Repetido = new Produto();
+        produto2Repetido.setNome("Produto 2");
+        produto2Repetido.setValor(new BigDecimal("50.00"));
+
+        when(pedidoRepository.findNumerosPedidoExistentes(anyCollection())).thenReturn(Set.of());
+        when(produtoRepository.findByNomeInOrderById(anyCollection())).thenReturn(List.of(cadastrado));
+
+        pedidoService.processarPedidosExternos(List.of(
+                new PedidoExternoA("1", List.of(produto1, produto2)),
+                new PedidoExternoA("2", List.of(produto2Repetido))));
+
+        verify(pedidoBatchRepository, times(1)).inserirPedidos(argThat(pedidos ->
+                pedidos.get(0).getPedidoProdutos().get(0).getProduto().getId() == 7L
+                && pedidos.get(0).getPedidoProdutos().get(1).getProduto()
+                        == pedidos.get(1).getPedidoProdutos().get(0).getProduto()));
+    }
+
+    /**
+     * Testa o processamento de um pedido sem lista de produtos junto com outro
+     * que tem um produto válido e um produto sem nome.
+     * Verifica se o lote é gravado, se o pedido sem lista fica sem produtos e se o
+     * produto sem nome, sem chave natural no catálogo, é ignorado.
+     */
+    @Test
+    void testProcessarPedidosExternos_ProdutosNulos() {
+        Produto produto = new Produto();
+        produto.setNome("Produto 1");
+        produto.setValor(new BigDecimal("100.00"));
+
+        Produto semNome = new Produto();
+        semNome.setValor(new BigDecimal("10.00"));
+
+        when(pedidoRepository.findNumerosPedidoExistentes(anyCollection())).thenReturn(Set.of());
+
+        pedidoService.processarPedidosExternos(List.of(new PedidoExternoA("1", null),
+                new PedidoExternoA("2", List.of(produto, semNome))));
+
+        verify(pedidoBatchRepository, times(1)).inserirPedidos(argThat(pedidos -> pedidos.size() == 2
+                && pedidos.get(0).getPedidoProdutos().isEmpty()
+                && pedidos.get(1).getPedidoProdutos().size() == 1));
+    }
+
+    /**
+     * Testa o processamento de um pedido gravado por outra transação após a
+     * verificação de existência.
+     * Verifica se o pedido é contado como duplicado e se nenhum evento é gravado.
+     */
+    @Test
+    void testProcessarPedidosExternos_ConflitoNumeroPedido() {
+        Produto produto = new Produto();
+        produto.setNome("Produto 1");
+        produto.setValor(new BigDecimal("100.00"));
+
+        when(pedidoRepository.findNumerosPedidoExistentes(anyCollection())).thenReturn(Set.of());
+        when(pedidoBatchRepository.inserirPedidos(anyList())).thenReturn(List.of());
+
+        ResultadoImportacao resultado = pedidoService.processarPedidosExternos(
+                List.of(new PedidoExternoA("1", List.of(produto))));
+
+        assertEquals(new ResultadoImportacao(1, 1, 0), resultado, "O pedido deveria ser contado como duplicado");
+        verify(outboxService, never()).registrarPedidosImportados(anyList());
+        verify(estatisticaService, never()).registrarPedidosImportados(anyList());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * Testa o processamento de pedidos externos pelo caminho JPA, verificando se um pedido
+     * é processado corretamente e salvado no banco quando não existe.
+     */
+    @Test
+    void testProcessarPedidosExternos_PersistenciaJpa() {
+        ReflectionTestUtils.setField(pedidoService, "persistenciaJdbc", false);
+
+        Produto produto = new Produto();
+        produto.setNome("Produto 1");
+        produto.setValor(new BigDecimal("100.00"));
 
         PedidoExternoA pedidoExternoA = new PedidoExternoA("12345", List.of(produto));
-        Pedido pedido = PedidoMapper.fromPedidoExternoA(pedidoExternoA);
         
-        when(pedidoRepository.existsByNumeroPedido("12345")).thenReturn(false);
+        when(pedidoRepository.findNumerosPedidoExistentes(anyCollection())).thenReturn(Set.of());
         when(produtoRepository.saveAll(anyList())).thenReturn(List.of(produto));
 
         pedidoService.processarPedidosExternos(List.of(pedidoExternoA));
 
         verify(pedidoRepository, times(1)).save(any(Pedido.class));  // Verifica se o pedido foi salvo
         verify(produtoRepository, times(1)).saveAll(anyList());  // Verifica se os produtos foram salvos
+        verify(pedidoBatchRepository, never()).inserirPedidos(anyList());
+    }
+
+    /**
+     * Testa a deduplicação em lote, verificando se números repetidos no próprio lote
+     * e números já cadastrados são descartados com uma única consulta ao banco.
+     */
+    @Test
+    void testFiltrarPedidosNovos() {
+        PedidoExternoA pedido1 = new PedidoExternoA("1", List.of());
+        PedidoExternoA pedido1Repetido = new PedidoExternoA("1", List.of());
+        PedidoExternoA pedido2 = new PedidoExternoA("2", List.of());
+        PedidoExternoA pedido3 = new PedidoExternoA("3", List.of());
+
+        when(pedidoRepository.findNumerosPedidoExistentes(anyCollection())).thenReturn(Set.of("2"));
+
+        List<PedidoExternoA> novos = pedidoService.filtrarPedidosNovos(
+                List.of(pedido1, pedido1Repetido, pedido2, pedido3));
+
+        assertEquals(List.of(pedido1, pedido3), novos, "Somente os pedidos novos deveriam ser mantidos");
+        verify(pedidoRepository, times(1)).findNumerosPedidoExistentes(anyCollection());
+        verify(pedidoRepository, never()).existsByNumeroPedido(anyString());
     }
 
     /**
@@ -139,4 +349,99 @@ class PedidoServiceTest {
         assertTrue(pedidoOptional.isPresent(), "O pedido deveria ser encontrado pelo número");
         assertEquals("12345", pedidoOptional.get().getNumeroPedido(), "O número do pedido encontrado está incorreto");
     }
+
+    /**
+     * Testa o método findAll, verificando se a página é resolvida em duas fases (IDs e depois
+     * a projeção dos pedidos com produtos) e se as linhas são agrupadas por pedido.
+     */
+    @Test
+    void testFindAll_DuasFases() {
+        Pageable pageable = PageRequest.of(1, 2);
+
+        when(pedidoRepository.findPedidoIds(pageable)).thenReturn(new PageImpl<>(List.of(3L, 4L), pageable, 10));
+        when(pedidoRepository.findLinhasByIdIn(List.of(3L, 4L))).thenReturn(List.of(
+                linha(3L, "3", 30L, "Produto 1"),
+                linha(3L, "3", 31L, "Produto 2"),
+                linha(4L, "4", null, null)));
+
+        Page<PedidoDTO> pagina = pedidoService.findAll(pageable);
+
+        assertEquals(2, pagina.getContent().size(), "A quantidade de pedidos da página está incorreta");
+        assertEquals(3L, pagina.getContent().get(0).id(), "A ordem dos pedidos da página está incorreta");
+        assertEquals(List.of("Produto 1", "Produto 2"), pagina.getContent().get(0).pedidoProdutos().stream()
+                .map(PedidoProdutoDTO::nome).toList(), "Os produtos do pedido estão incorretos");
+        assertTrue(pagina.getContent().get(1).pedidoProdutos().isEmpty(), "O pedido não deveria ter produtos");
+        assertEquals(10, pagina.getTotalElements(), "O total de pedidos está incorreto");
+    }
+
+    /**
+     * Testa o método findAllApos, verificando se a paginação keyset parte do ID informado.
+     */
+    @Test
+    void testFindAllApos() {
+        when(pedidoRepository.findPedidoIdsApos(eq(20L), any(Pageable.class))).thenReturn(List.of(21L));
+        when(pedidoRepository.findLinhasByIdIn(List.of(21L))).thenReturn(List.of(linha(21L, "21", 1L, "Produto 1")));
+
+        List<PedidoDTO> pedidos = pedidoService.findAllApos(20L, 5);
+
+        assertEquals(1, pedidos.size(), "Os pedidos após o ID informado estão incorretos");
+        assertEquals(21L, pedidos.get(0).id(), "O ID do pedido encontrado está incorreto");
+        verify(pedidoRepository).findPedidoIdsApos(20L, PageRequest.ofSize(5));
+    }
+
+    /**
+     * Testa o método findAllCadastradosApos, verificando se a página parte da posição do
+     * cursor e se os pedidos seguem a ordem de data de cadastro, e não a de ID.
+     */
+    @Test
+    void testFindAllCadastradosApos() {
+        LocalDateTime data = LocalDateTime.of(2024, 5, 1, 10, 0);
+        LocalDateTime ate = data.plusDays(1);
+        when(pedidoRepository.findPedidoIdsCadastradosAposAte(data, 7L, ate, PageRequest.ofSize(2)))
+                .thenReturn(List.of(9L, 8L));
+        when(pedidoRepository.findLinhasByIdIn(List.of(9L, 8L))).thenReturn(List.of(
+                linha(8L, "8", null, null),
+                linha(9L, "9", null, null)));
+
+        List<PedidoDTO> pedidos = pedidoService.findAllCadastradosApos(new CursorPedido(data, 7L), ate, 2);
+
+        assertEquals(List.of(9L, 8L), pedidos.stream().map(PedidoDTO::id).toList(),
+                "A ordem dos pedidos da página está incorreta");
+        verify(pedidoRepository, never()).findPedidoIdsCadastradosApos(any(), any(), any());
+    }
+
+    /**
+     * Testa o método etagFindAll, verificando se a ETag da página é calculada sem carregar
+     * os produtos, se coincide com a ETag da página completa e se muda quando um pedido
+     * da página é alterado.
+     */
+    @Test
+    void testEtagFindAll() {
+        Pageable pageable = PageRequest.of(0, 2);
+        when(pedidoRepository.findPedidoIds(pageable)).thenReturn(new PageImpl<>(List.of(4L, 3L), pageable, 2));
+        when(pedidoRepository.findVersoesByIdIn(List.of(4L, 3L))).thenReturn(List.of(
+                new VersaoPedido(3L, 0L, null, null),
+                new VersaoPedido(4L, 0L, null, null)));
+
+        String etag = pedidoService.etagFindAll(pageable);
+        verify(pedidoRepository, never()).findLinhasByIdIn(any());
+
+        when(pedidoRepository.findLinhasByIdIn(List.of(4L, 3L))).thenReturn(List.of(
+                linha(3L, "3", null, null),
+                linha(4L, "4", null, null)));
+        Page<PedidoDTO> pagina = pedidoService.findAll(pageable);
+        assertEquals(VersaoPedido.etagPagina(pagina.getContent().stream().map(VersaoPedido::de).toList(), 2), etag,
+                "A ETag deveria coincidir com a da página completa");
+
+        when(pedidoRepository.findVersoesByIdIn(List.of(4L, 3L))).thenReturn(List.of(
+                new VersaoPedido(3L, 1L, null, null),
+                new VersaoPedido(4L, 0L, null, null)));
+        assertNotEquals(etag, pedidoService.etagFindAll(pageable), "A ETag deveria mudar com a versão do pedido");
+    }
+
+    private PedidoLinhaProjecao linha(Long pedidoId, String numeroPedido, Long pedidoProdutoId, String produtoNome) {
+        return new PedidoLinhaProjecao(pedidoId, numeroPedido, new BigDecimal("100.00"), null, null, 0L, null,
+                pedidoProdutoId, pedidoProdutoId, produtoNome, pedidoProdutoId == null ? null : new BigDecimal("50.00"),
+                pedidoProdutoId == null ? null : 1);
+    }
 }
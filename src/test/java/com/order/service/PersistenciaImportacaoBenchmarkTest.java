@@ -0,0 +1,88 @@
+package com.order.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.order.model.PedidoExternoA;
+import com.order.model.Produto;
+
+/**
+ * Compara o caminho de persistência JPA (pedido a pedido) com o caminho em lote
+ * via JDBC, importando o mesmo feed em um PostgreSQL real.
+ *
+ * Executado apenas quando ORDER_BENCHMARK_DATABASE_URL estiver definida, por exemplo:
+ * ORDER_BENCHMARK_DATABASE_URL=jdbc:postgresql://localhost:5432/postgres mvn test -Dtest=PersistenciaImportacaoBenchmarkTest
+ */
+@Tag("benchmark")
+@EnabledIfEnvironmentVariable(named = "ORDER_BENCHMARK_DATABASE_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.datasource.url=${ORDER_BENCHMARK_DATABASE_URL}",
+        "spring.datasource.username=${ORDER_BENCHMARK_DATABASE_USERNAME:postgres}",
+        "spring.datasource.password=${ORDER_BENCHMARK_DATABASE_PASSWORD:postgres}",
+        "spring.jpa.show-sql=false"
+})
+class PersistenciaImportacaoBenchmarkTest {
+
+    private static final int TAMANHO_FEED = 20_000;
+    private static final int TAMANHO_LOTE = 1_000;
+    private static final int PRODUTOS_POR_PEDIDO = 3;
+
+    @Autowired
+    private PedidoService pedidoService;
+
+    @Test
+    void compararPersistenciaJpaComJdbc() {
+        // Aquecimento de ambos os caminhos antes da medição
+        medir(false, 2 * TAMANHO_LOTE);
+        medir(true, 2 * TAMANHO_LOTE);
+
+        double pedidosPorSegundoJpa = medir(false, TAMANHO_FEED);
+        double pedidosPorSegundoJdbc = medir(true, TAMANHO_FEED);
+
+        System.out.printf("Persistência JPA:  %.0f pedidos/s%n", pedidosPorSegundoJpa);
+        System.out.printf("Persistência JDBC: %.0f pedidos/s%n", pedidosPorSegundoJdbc);
+        System.out.printf("Ganho: %.1fx%n", pedidosPorSegundoJdbc / pedidosPorSegundoJpa);
+    }
+
+    private double medir(boolean persistenciaJdbc, int quantidade) {
+        ReflectionTestUtils.setField(AopTestUtils.getTargetObject(pedidoService), "persistenciaJdbc", persistenciaJdbc);
+        List<PedidoExternoA> feed = gerarFeed(quantidade);
+
+        long inicio = System.nanoTime();
+        for (int i = 0; i < feed.size(); i += TAMANHO_LOTE) {
+            pedidoService.processarPedidosExternos(feed.subList(i, Math.min(i + TAMANHO_LOTE, feed.size())));
+        }
+        long duracao = System.nanoTime() - inicio;
+
+        return quantidade / (duracao / 1_000_000_000.0);
+    }
+
+    /**
+     * Gera um feed com o mesmo formato a cada chamada; apenas os números dos
+     * pedidos mudam, para que a deduplicação não descarte os pedidos.
+     */
+    private List<PedidoExternoA> gerarFeed(int quantidade) {
+        String prefixo = "bench-" + System.nanoTime() + "-";
+        List<PedidoExternoA> feed = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            List<Produto> produtos = new ArrayList<>(PRODUTOS_POR_PEDIDO);
+            for (int j = 0; j < PRODUTOS_POR_PEDIDO; j++) {
+                Produto produto = new Produto();
+                produto.setNome("Produto " + j);
+                produto.setValor(BigDecimal.valueOf(10L * (j + 1)));
+                produtos.add(produto);
+            }
+            feed.add(new PedidoExternoA(prefixo + i, produtos));
+        }
+        return feed;
+    }
+}
@@ -0,0 +1,81 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.order.model.Produto;
+import com.order.repository.ProdutoRepository;
+import com.order.service.ProdutoCatalogoService.ChaveProduto;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ProdutoCatalogoServiceTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    private ProdutoCatalogoService produtoCatalogoService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        produtoCatalogoService = new ProdutoCatalogoService(produtoRepository, new SimpleMeterRegistry(), 1000);
+    }
+
+    /**
+     * Testa a resolução de um produto já cadastrado.
+     * Verifica se a primeira resolução consulta o banco e a segunda é atendida pelo cache.
+     */
+    @Test
+    void testResolverProdutos_CadastradoUsaCache() {
+        Produto cadastrado = produto(10L, "Produto 1", new BigDecimal("100.00"));
+        when(produtoRepository.findByNomeInOrderById(anyCollection())).thenReturn(List.of(cadastrado));
+
+        Map<ChaveProduto, Produto> primeira = produtoCatalogoService.resolverProdutos(List.of(produto(null, "Produto 1", new BigDecimal("100.00"))));
+        Map<ChaveProduto, Produto> segunda = produtoCatalogoService.resolverProdutos(List.of(produto(null, "Produto 1", new BigDecimal("100.00"))));
+
+        ChaveProduto chave = new ChaveProduto("Produto 1", new BigDecimal("100.00"));
+        assertEquals(10L, primeira.get(chave).getId(), "O produto deveria ser resolvido pelo cadastro");
+        assertEquals(10L, segunda.get(chave).getId(), "O produto deveria ser resolvido pelo cache");
+        verify(produtoRepository, times(1)).findByNomeInOrderById(anyCollection());
+        assertEquals(1, produtoCatalogoService.estatisticas().hitCount(), "Deveria haver um acerto no cache");
+    }
+
+    /**
+     * Testa a resolução de produtos nunca vistos.
+     * Verifica se um produto com mesmo nome e valor diferente é tratado como novo e se
+     * repetições da mesma chave resultam em uma única instância sem ID.
+     */
+    @Test
+    void testResolverProdutos_NovosPorChave() {
+        when(produtoRepository.findByNomeInOrderById(anyCollection()))
+                .thenReturn(List.of(produto(10L, "Produto 1", new BigDecimal("100.00"))));
+
+        Map<ChaveProduto, Produto> resolvidos = produtoCatalogoService.resolverProdutos(List.of(
+                produto(null, "Produto 1", new BigDecimal("90.00")),
+                produto(null, "Produto 1", new BigDecimal("90.00")),
+                produto(null, "Produto 2", new BigDecimal("50.00"))));
+
+        assertEquals(2, resolvidos.size(), "Deveria haver uma instância por chave natural");
+        assertNull(resolvidos.get(new ChaveProduto("Produto 1", new BigDecimal("90.00"))).getId(), "O produto deveria ser novo");
+        assertNull(resolvidos.get(new ChaveProduto("Produto 2", new BigDecimal("50.00"))).getId(), "O produto deveria ser novo");
+    }
+
+    private Produto produto(Long id, String nome, BigDecimal valor) {
+        Produto produto = new Produto();
+        produto.setId(id);
+        produto.setNome(nome);
+        produto.setValor(valor);
+        return produto;
+    }
+}
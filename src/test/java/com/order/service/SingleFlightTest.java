@@ -0,0 +1,71 @@
+package com.order.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    /**
+     * Testa se chamadas concorrentes com a mesma chave compartilham uma única
+     * execução da consulta e recebem o mesmo resultado.
+     */
+    @Test
+    void testExecutar_ChamadasConcorrentes() throws Exception {
+        AtomicInteger execucoes = new AtomicInteger();
+        CountDownLatch consultaIniciada = new CountDownLatch(1);
+        CountDownLatch liberarConsulta = new CountDownLatch(1);
+
+        CompletableFuture<Integer> primeira = CompletableFuture.supplyAsync(() -> singleFlight.executar("pagina-0", () -> {
+            execucoes.incrementAndGet();
+            consultaIniciada.countDown();
+            aguardar(liberarConsulta);
+            return 42;
+        }));
+        assertTrue(consultaIniciada.await(5, TimeUnit.SECONDS), "A consulta deveria ter iniciado");
+
+        CompletableFuture<Integer> segunda = CompletableFuture.supplyAsync(() -> singleFlight.executar("pagina-0", () -> {
+            execucoes.incrementAndGet();
+            return -1;
+        }));
+        // Dá tempo à segunda chamada de encontrar a execução em andamento
+        Thread.sleep(100);
+        liberarConsulta.countDown();
+
+        assertEquals(42, primeira.get(5, TimeUnit.SECONDS), "O resultado da primeira chamada está incorreto");
+        assertEquals(42, segunda.get(5, TimeUnit.SECONDS), "A segunda chamada deveria receber o mesmo resultado");
+        assertEquals(1, execucoes.get(), "A consulta deveria ser executada uma única vez");
+    }
+
+    /**
+     * Testa se uma nova chamada, após a conclusão da anterior, executa a consulta
+     * novamente, e se a exceção da consulta é repassada a quem chamou.
+     */
+    @Test
+    void testExecutar_NaoGuardaResultado() {
+        assertEquals(1, singleFlight.executar("pagina-0", () -> 1));
+        assertEquals(2, singleFlight.executar("pagina-0", () -> 2), "O resultado não deveria ser guardado");
+
+        IllegalStateException erro = assertThrows(IllegalStateException.class,
+                () -> singleFlight.executar("pagina-0", () -> {
+                    throw new IllegalStateException("falha");
+                }));
+        assertEquals("falha", erro.getMessage());
+        assertEquals(3, singleFlight.executar("pagina-0", () -> 3), "Uma falha não deveria bloquear a chave");
+    }
+
+    private void aguardar(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}